@@ -0,0 +1,38 @@
+package com.sanez.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Crea la columna tsvector generada y su índice GIN para BuscadorNotasPostgres.
+// ddl-auto=update no sabe declarar columnas generadas, así que se hace aquí de forma idempotente.
+// Añadir la columna reescribe la tabla notas una sola vez; los arranques siguientes no hacen nada.
+@Component
+@ConditionalOnProperty(name = "notas.search.motor", havingValue = "postgres")
+@Slf4j
+public class BusquedaPostgresInitializer implements CommandLineRunner {
+
+    // El título pesa más (A) que el contenido (B) en ts_rank.
+    private static final String COLUMNA_BUSQUEDA = "alter table notas add column if not exists busqueda tsvector "
+            + "generated always as ("
+            + "setweight(to_tsvector('spanish', coalesce(titulo, '')), 'A') || "
+            + "setweight(to_tsvector('spanish', coalesce(contenido, '')), 'B')"
+            + ") stored";
+    private static final String INDICE_BUSQUEDA =
+            "create index if not exists idx_notas_busqueda on notas using gin (busqueda)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BusquedaPostgresInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        jdbcTemplate.execute(COLUMNA_BUSQUEDA);
+        jdbcTemplate.execute(INDICE_BUSQUEDA);
+        log.info("Búsqueda de texto completo PostgreSQL preparada (notas.busqueda + idx_notas_busqueda)");
+    }
+}
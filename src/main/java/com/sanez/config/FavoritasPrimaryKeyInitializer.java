@@ -0,0 +1,48 @@
+package com.sanez.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+// Añade la clave primaria (perfil_id, nota_id) a perfil_notas_favoritas en bases creadas cuando las favoritas
+// eran una List: ddl-auto=update no añade claves primarias a tablas existentes.
+// Antes se eliminan filas nulas y duplicadas. Es idempotente: si la clave ya existe no hace nada.
+@Component
+@Profile("prod")
+@Slf4j
+public class FavoritasPrimaryKeyInitializer implements CommandLineRunner {
+
+    private static final String EXISTE_CLAVE = "select count(*) from information_schema.table_constraints "
+            + "where table_schema = current_schema() and table_name = 'perfil_notas_favoritas' "
+            + "and constraint_type = 'PRIMARY KEY'";
+    private static final String BORRAR_NULOS = "delete from perfil_notas_favoritas where nota_id is null";
+    private static final String BORRAR_DUPLICADOS = "delete from perfil_notas_favoritas a "
+            + "using perfil_notas_favoritas b "
+            + "where a.perfil_id = b.perfil_id and a.nota_id = b.nota_id and a.ctid > b.ctid";
+    private static final String NOTA_NO_NULA = "alter table perfil_notas_favoritas alter column nota_id set not null";
+    private static final String CLAVE_PRIMARIA =
+            "alter table perfil_notas_favoritas add primary key (perfil_id, nota_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FavoritasPrimaryKeyInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        Integer claves = jdbcTemplate.queryForObject(EXISTE_CLAVE, Integer.class);
+        if (claves != null && claves > 0) {
+            return;
+        }
+        jdbcTemplate.update(BORRAR_NULOS);
+        int duplicados = jdbcTemplate.update(BORRAR_DUPLICADOS);
+        jdbcTemplate.execute(NOTA_NO_NULA);
+        jdbcTemplate.execute(CLAVE_PRIMARIA);
+        log.info("Clave primaria añadida a perfil_notas_favoritas ({} duplicados eliminados)", duplicados);
+    }
+}
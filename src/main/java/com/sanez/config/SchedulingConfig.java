@@ -0,0 +1,10 @@
+package com.sanez.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+
+@Configuration
+@EnableScheduling //habilita las tareas @Scheduled (purga de tokens revocados, etc.).
+public class SchedulingConfig {
+}
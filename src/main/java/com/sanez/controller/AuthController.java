@@ -2,11 +2,16 @@ package com.sanez.controller;
 
 import com.sanez.dto.auth.LoginRequest;
 import com.sanez.dto.auth.LoginResponse;
+import com.sanez.dto.auth.RefreshTokenRequest;
 import com.sanez.dto.auth.ResetPasswordRequest;
 import com.sanez.dto.usuario.UsuarioRequestDTO;
 import com.sanez.dto.usuario.UsuarioResponseDTO;
 import com.sanez.exception.AccesoNoAutorizadoException;
 import com.sanez.security.jwt.JwtUtil;
+import com.sanez.security.jwt.VerifiedJwt;
+import com.sanez.security.service.CustomUserDetails;
+import com.sanez.security.service.RefreshTokenService;
+import com.sanez.security.service.TokenRevocationService;
 import com.sanez.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,6 +20,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +31,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -40,15 +47,22 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final AuthService authService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final UserDetailsService userDetailsService;
 
     public AuthController(AuthenticationManager authenticationManager, JwtUtil jwtUtil,
-                          AuthService authService) {
+                          AuthService authService, TokenRevocationService tokenRevocationService,
+                          RefreshTokenService refreshTokenService, UserDetailsService userDetailsService) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.authService = authService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
+        this.userDetailsService = userDetailsService;
     }
 
-    @Operation(summary = "Iniciar sesión", description = "Autentica un usuario y retorna un token JWT válido por 1 hora")
+    @Operation(summary = "Iniciar sesión", description = "Autentica un usuario y retorna un token JWT válido por 1 hora y un token de refresco")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login exitoso",
                     content = @Content(schema = @Schema(implementation = LoginResponse.class))),
@@ -68,11 +82,65 @@ public class AuthController {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String jwtToken = jwtUtil.generateToken(userDetails);
 
+        // Token de refresco de un solo uso para renovar el JWT sin repetir el login
+        String refreshToken = userDetails instanceof CustomUserDetails customUser
+                ? refreshTokenService.emitir(customUser.getId())
+                : null;
+
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+
+        LoginResponse response = new LoginResponse(userDetails.getUsername(), roles, jwtToken, refreshToken);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Renovar token",
+            description = "Canjea un token de refresco por un nuevo JWT y un nuevo token de refresco. Cada token de refresco sirve una sola vez; reutilizarlo revoca toda la sesión.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens renovados",
+                    content = @Content(schema = @Schema(implementation = LoginResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Token de refresco inválido, expirado o reutilizado")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        RefreshTokenService.Rotacion rotacion = refreshTokenService.rotar(request.getRefreshToken());
+
+        // Recarga el usuario para emitir el JWT con roles y versión de credenciales vigentes
+        UserDetails userDetails = userDetailsService.loadUserByUsername(rotacion.email());
+        String jwtToken = jwtUtil.generateToken(userDetails);
+
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
-        LoginResponse response = new LoginResponse(userDetails.getUsername(), roles, jwtToken);
+        return ResponseEntity.ok(new LoginResponse(userDetails.getUsername(), roles, jwtToken,
+                rotacion.refreshToken()));
+    }
+
+    @Operation(summary = "Cerrar sesión", description = "Revoca el token JWT enviado en el header Authorization hasta su expiración "
+            + "y todos los tokens de refresco del usuario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Token revocado"),
+            @ApiResponse(responseCode = "401", description = "Token ausente o inválido")
+    })
+    @PostMapping("/signout")
+    public ResponseEntity<?> signout(HttpServletRequest request) {
+        String jwt = jwtUtil.getJwtFromHeader(request);
+        VerifiedJwt verified = jwt != null ? jwtUtil.verifyToken(jwt) : null;
+        if (verified == null) {
+            throw new AccesoNoAutorizadoException("Token inválido");
+        }
+
+        tokenRevocationService.revoke(verified);
+        // Sin esto el token de refresco emitido en el login seguiría canjeándose por JWT nuevos
+        if (verified.getUserId() != null) {
+            refreshTokenService.revocarTodos(verified.getUserId());
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("mensaje", "Sesión cerrada exitosamente.");
+
         return ResponseEntity.ok(response);
     }
 
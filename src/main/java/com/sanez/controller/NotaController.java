@@ -1,10 +1,19 @@
 package com.sanez.controller;
 
+import com.sanez.dto.nota.NotaBatchRequestDTO;
+import com.sanez.dto.nota.NotaBusquedaDTO;
+import com.sanez.dto.nota.NotaCambiosDTO;
+import com.sanez.dto.nota.NotaImportResultadoDTO;
+import com.sanez.dto.nota.NotaOperacionResultadoDTO;
+import com.sanez.dto.nota.NotaPaginaDTO;
 import com.sanez.dto.nota.NotaRequestDTO;
 import com.sanez.dto.nota.NotaResponseDTO;
+import com.sanez.dto.nota.NotaSugerenciaDTO;
 import com.sanez.dto.nota.NotaUpdateDTO;
+import com.sanez.exception.PrecondicionFallidaException;
 import com.sanez.service.NotaService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,10 +21,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
@@ -25,6 +41,9 @@ import java.util.List;
 @RequestMapping("/api/notas")
 public class NotaController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
     private final NotaService notaService;
 
     public NotaController(NotaService notaService) {
@@ -49,29 +68,160 @@ public class NotaController {
         return ResponseEntity.created(location).body(notaCreada);
     }
 
-    @Operation(summary = "Listar mis notas", description = "Obtiene todas las notas del usuario autenticado")
+    @Operation(summary = "Listar mis notas",
+            description = "Obtiene el resumen (título y extracto) de las notas del usuario autenticado, "
+                    + "paginadas por cursor. "
+                    + "Para la siguiente página se envía nextCursor como parámetro after. "
+                    + "Admite If-None-Match con el ETag de una respuesta anterior")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de notas obtenida exitosamente"),
+            @ApiResponse(responseCode = "200", description = "Página de notas obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = NotaPaginaDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Las notas no han cambiado desde el ETag enviado"),
             @ApiResponse(responseCode = "401", description = "No autenticado")
     })
     @GetMapping
-    public ResponseEntity<List<NotaResponseDTO>> obtenerNotasPorUsuario() {
-        return ResponseEntity.ok(notaService.obtenerNotasPorUsuario());
+    public ResponseEntity<NotaPaginaDTO> obtenerNotasPorUsuario(
+            @Parameter(description = "Cursor devuelto en nextCursor por la página anterior")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Tamaño de página (1-200)")
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        // El ETag sale del contador de cambios del usuario; si coincide se responde 304 sin consultar las notas.
+        // El mismo contador se pasa al listado para que el cuerpo no sea más antiguo que su ETag.
+        long version = notaService.obtenerVersionNotas();
+        String etag = notaService.obtenerEtagNotas(version);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(notaService.obtenerNotasPorUsuario(after, limit, version));
+    }
+
+    @Operation(summary = "Buscar en mis notas",
+            description = "Búsqueda de texto en título y contenido, sin distinguir mayúsculas. "
+                    + "Devuelve los resúmenes ordenados por relevancia, paginados con offset/limit. "
+                    + "Con el motor PostgreSQL el extracto marca las coincidencias con <mark></mark>")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados de la búsqueda"),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<NotaBusquedaDTO>> buscarNotas(
+            @Parameter(description = "Texto a buscar") @RequestParam String q,
+            @Parameter(description = "Resultados a saltar (0-1000)") @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Máximo de resultados (1-100)") @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(notaService.buscarNotas(q, offset, limit));
+    }
+
+    @Operation(summary = "Autocompletar títulos",
+            description = "Títulos de mis notas con alguna palabra que empieza por el prefijo (sin distinguir "
+                    + "mayúsculas ni tildes), completados con títulos parecidos si el prefijo está mal escrito")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugerencias obtenidas"),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<NotaSugerenciaDTO>> sugerirTitulos(
+            @Parameter(description = "Texto escrito hasta ahora") @RequestParam String prefix,
+            @Parameter(description = "Máximo de sugerencias (1-20)") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(notaService.sugerirTitulos(prefix, limit));
     }
 
-    @Operation(summary = "Editar nota", description = "Actualiza título y/o contenido de una nota propia")
+    @Operation(summary = "Sincronización delta",
+            description = "Devuelve las notas creadas o modificadas y los ids eliminados desde el token 'since'. "
+                    + "Sin 'since' devuelve todas las notas. El token de la respuesta se usa en la siguiente llamada; "
+                    + "con 'hayMas' quedan páginas pendientes. Con 'resincronizar' el token es anterior a los borrados "
+                    + "ya purgados y hay que descartar el estado local y repetir sin 'since'")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cambios obtenidos exitosamente",
+                    content = @Content(schema = @Schema(implementation = NotaCambiosDTO.class))),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<NotaCambiosDTO> obtenerCambios(
+            @Parameter(description = "Token devuelto por la sincronización anterior")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Máximo de cambios por página (1-500)") @RequestParam(defaultValue = "200") int limit) {
+        return ResponseEntity.ok(notaService.obtenerCambios(since, limit));
+    }
+
+    @Operation(summary = "Operaciones por lotes",
+            description = "Aplica una lista de operaciones CREAR/EDITAR/ELIMINAR en una sola transacción. "
+                    + "Cada operación devuelve su propio status (201, 200, 204, 400, 403, 404 o 412). "
+                    + "EDITAR acepta una versión esperada opcional; sin ella gana la última escritura")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote procesado; ver el status de cada operación"),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con demasiadas operaciones"),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<NotaOperacionResultadoDTO>> procesarLote(
+            @Valid @RequestBody NotaBatchRequestDTO request) {
+        return ResponseEntity.ok(notaService.procesarLote(request));
+    }
+
+    @Operation(summary = "Importar notas",
+            description = "Crea notas en bloque a partir de un array JSON o de NDJSON (una nota por línea). "
+                    + "Los registros inválidos se rechazan individualmente indicando su línea")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importación procesada",
+                    content = @Content(schema = @Schema(implementation = NotaImportResultadoDTO.class))),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<NotaImportResultadoDTO> importarNotas(InputStream cuerpo) throws IOException {
+        return ResponseEntity.ok(notaService.importarNotas(cuerpo));
+    }
+
+    @Operation(summary = "Exportar mis notas",
+            description = "Descarga todas las notas del usuario autenticado en formato NDJSON (una nota por línea)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarNotas() {
+        // El cuerpo se escribe en un hilo asíncrono mientras se recorre el cursor de la base de datos.
+        StreamingResponseBody cuerpo = notaService::exportarNotas;
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notas.ndjson\"")
+                .body(cuerpo);
+    }
+
+    @Operation(summary = "Obtener nota", description = "Obtiene una nota propia con su contenido completo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Nota obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = NotaResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Nota no encontrada"),
+            @ApiResponse(responseCode = "403", description = "No eres el propietario de esta nota"),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<NotaResponseDTO> obtenerNota(@PathVariable Long id) {
+        NotaResponseDTO nota = notaService.obtenerNota(id);
+        return ResponseEntity.ok().eTag(etag(nota)).body(nota);
+    }
+
+    @Operation(summary = "Editar nota", description = "Actualiza título y/o contenido de una nota propia. "
+            + "Con If-Match (ETag de GET /api/notas/{id}) solo se aplica si la nota no cambió desde entonces")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Nota actualizada exitosamente",
                     content = @Content(schema = @Schema(implementation = NotaResponseDTO.class))),
             @ApiResponse(responseCode = "404", description = "Nota no encontrada"),
             @ApiResponse(responseCode = "403", description = "No eres el propietario de esta nota"),
+            @ApiResponse(responseCode = "412", description = "If-Match no coincide con la versión actual"),
             @ApiResponse(responseCode = "401", description = "No autenticado")
     })
     @PatchMapping("/{id}")
     public ResponseEntity<NotaResponseDTO> editarNota(@PathVariable Long id,
-                                                      @Valid @RequestBody NotaUpdateDTO notaUpdateDTO) {
-        NotaResponseDTO notaActualizada = notaService.editarNota(id, notaUpdateDTO);
-        return ResponseEntity.ok(notaActualizada);
+                                                      @Valid @RequestBody NotaUpdateDTO notaUpdateDTO,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                      String ifMatch) {
+        NotaResponseDTO notaActualizada = notaService.editarNota(id, notaUpdateDTO, versionDesdeIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(etag(notaActualizada)).body(notaActualizada);
     }
 
     @Operation(summary = "Eliminar nota", description = "Elimina permanentemente una nota propia")
@@ -86,4 +236,26 @@ public class NotaController {
         notaService.eliminarNota(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // ETag fuerte de una nota: su versión (@Version).
+    private static String etag(NotaResponseDTO nota) {
+        return "\"" + nota.getVersion() + "\"";
+    }
+
+    // Versión esperada a partir de If-Match; null si no se envió o es "*".
+    // Un ETag débil o con formato desconocido nunca coincide (comparación fuerte), por eso responde 412.
+    private static Long versionDesdeIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            try {
+                return Long.parseLong(valor.substring(1, valor.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // Cae al 412
+            }
+        }
+        throw new PrecondicionFallidaException("If-Match no coincide con la versión actual de la nota");
+    }
+}
@@ -1,6 +1,7 @@
 package com.sanez.controller;
 
 import com.sanez.dto.perfil.CambiarPasswordRequest;
+import com.sanez.dto.perfil.FavoritasRequestDTO;
 import com.sanez.dto.perfil.PerfilRequestDTO;
 import com.sanez.dto.perfil.PerfilResponseDTO;
 import com.sanez.service.PerfilService;
@@ -12,8 +13,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -30,15 +36,30 @@ public class PerfilController {
         this.perfilService = perfilService;
     }
 
-    @Operation(summary = "Obtener mi perfil", description = "Retorna el perfil del usuario autenticado con sus notas favoritas")
+    @Operation(summary = "Obtener mi perfil", description = "Retorna el perfil del usuario autenticado con sus notas favoritas. "
+            + "Admite If-None-Match con el ETag de una respuesta anterior")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Perfil obtenido exitosamente",
                     content = @Content(schema = @Schema(implementation = PerfilResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "El perfil no ha cambiado desde el ETag enviado"),
             @ApiResponse(responseCode = "401", description = "No autenticado")
     })
     @GetMapping("/mi-perfil")
-    public ResponseEntity<PerfilResponseDTO> obtenerMiPerfil() {
-        return ResponseEntity.ok(perfilService.obtenerMiPerfil());
+    public ResponseEntity<PerfilResponseDTO> obtenerMiPerfil(WebRequest request) {
+        // El ETag sale de la versión del perfil; si coincide se responde 304 sin cargar el perfil.
+        String etagActual = perfilService.obtenerEtagPerfil();
+        if (coincideIfNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), etagActual)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etagActual)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+        // Con 200 el ETag sale del perfil realmente cargado: la lectura puede ser anterior a la del ETag.
+        PerfilResponseDTO perfil = perfilService.obtenerMiPerfil();
+        return ResponseEntity.ok()
+                .eTag(etag(perfil))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(perfil);
     }
 
     @Operation(summary = "Actualizar mi perfil", description = "Actualiza el nombre del perfil del usuario autenticado")
@@ -79,6 +100,33 @@ public class PerfilController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Agregar varias notas a favoritos", description = "Marca como favoritas hasta 1000 notas propias "
+            + "en una sola operación. Las que ya eran favoritas se ignoran; si alguna no es propia no se agrega ninguna")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Notas agregadas a favoritos"),
+            @ApiResponse(responseCode = "400", description = "Lista vacía o con más de 1000 notas"),
+            @ApiResponse(responseCode = "404", description = "Alguna nota no existe o no es propia"),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    @PostMapping("/favoritas")
+    public ResponseEntity<Void> agregarNotasFavoritas(@Valid @RequestBody FavoritasRequestDTO request) {
+        perfilService.agregarNotasFavoritas(request.getNotaIds());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Remover varias notas de favoritos", description = "Quita de favoritos hasta 1000 notas "
+            + "en una sola operación. Las que no eran favoritas se ignoran")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Notas removidas de favoritos"),
+            @ApiResponse(responseCode = "400", description = "Lista vacía o con más de 1000 notas"),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    @DeleteMapping("/favoritas")
+    public ResponseEntity<Void> removerNotasFavoritas(@Valid @RequestBody FavoritasRequestDTO request) {
+        perfilService.removerNotasFavoritas(request.getNotaIds());
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Cambiar contraseña", description = "Permite al usuario autenticado cambiar su contraseña actual por una nueva")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Contraseña actualizada exitosamente"),
@@ -95,4 +143,18 @@ public class PerfilController {
 
         return ResponseEntity.ok(response);
     }
+
+    // Comparación débil, igual que WebRequest.checkNotModified, pero sin fijar ya la cabecera ETag de la respuesta.
+    private static boolean coincideIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        ETag actual = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(e -> e.isWildcard() || e.compare(actual, false));
+    }
+
+    // Mismo formato que PerfilService.obtenerEtagPerfil: id y @Version del perfil.
+    private static String etag(PerfilResponseDTO perfil) {
+        return "\"perfil-" + perfil.getId() + "-" + perfil.getVersion() + "\"";
+    }
 }
\ No newline at end of file
@@ -15,4 +15,5 @@ public class LoginResponse {
     private String email;
     private List<String> roles;
     private String token;
+    private String refreshToken;
 }
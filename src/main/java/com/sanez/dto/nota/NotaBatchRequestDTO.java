@@ -0,0 +1,22 @@
+package com.sanez.dto.nota;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaBatchRequestDTO {
+
+    @NotEmpty(message = "Debe incluir al menos una operación")
+    @Size(max = 500, message = "No se pueden enviar más de 500 operaciones por lote")
+    private List<@Valid NotaOperacionDTO> operaciones;
+}
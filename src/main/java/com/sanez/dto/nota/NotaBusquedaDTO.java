@@ -0,0 +1,19 @@
+package com.sanez.dto.nota;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Resultado de búsqueda: resumen de la nota y su puntuación de relevancia (mayor es mejor).
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaBusquedaDTO {
+
+    private Long id;
+    private String titulo;
+    private String preview;
+    private double puntuacion;
+}
@@ -0,0 +1,26 @@
+package com.sanez.dto.nota;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaCambiosDTO {
+
+    // Notas creadas o modificadas desde el token recibido.
+    private List<NotaResponseDTO> actualizadas;
+    // Ids de las notas eliminadas desde el token recibido.
+    private List<Long> eliminadas;
+    // Valor a enviar como "since" en la siguiente sincronización.
+    private long token;
+    // Hay más cambios después de "token": pedir la página siguiente con since=token.
+    private boolean hayMas;
+    // El "since" recibido es anterior a las lápidas ya purgadas: descartar el estado local y sincronizar sin "since".
+    private boolean resincronizar;
+}
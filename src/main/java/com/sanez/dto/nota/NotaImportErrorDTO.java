@@ -0,0 +1,17 @@
+package com.sanez.dto.nota;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaImportErrorDTO {
+
+    // Línea del cuerpo donde empieza el registro rechazado.
+    private long linea;
+    private String mensaje;
+}
@@ -0,0 +1,21 @@
+package com.sanez.dto.nota;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaImportResultadoDTO {
+
+    private int aceptadas;
+    private int rechazadas;
+    // Detalle de los rechazos, limitado a los primeros para acotar el tamaño de la respuesta.
+    private List<NotaImportErrorDTO> errores = new ArrayList<>();
+}
@@ -0,0 +1,32 @@
+package com.sanez.dto.nota;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaOperacionDTO {
+
+    public enum Tipo {
+        CREAR, EDITAR, ELIMINAR
+    }
+
+    @NotNull(message = "El tipo de operación es obligatorio")
+    private Tipo tipo;
+
+    // Nota objetivo; obligatorio para EDITAR y ELIMINAR.
+    private Long id;
+
+    // Datos de la nota; se validan con las reglas de NotaRequestDTO (CREAR) o NotaUpdateDTO (EDITAR).
+    private String titulo;
+    private String contenido;
+
+    // Versión esperada para EDITAR (equivale al If-Match del PATCH individual): si no coincide la operación
+    // devuelve 412. Sin ella la edición no se condiciona y gana la última escritura.
+    private Long version;
+}
@@ -0,0 +1,22 @@
+package com.sanez.dto.nota;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaOperacionResultadoDTO {
+
+    // Posición de la operación dentro del lote recibido.
+    private int indice;
+    private NotaOperacionDTO.Tipo tipo;
+    // Id de la nota afectada (o creada).
+    private Long id;
+    // Código HTTP equivalente a haber ejecutado la operación de forma individual.
+    private int status;
+    private String mensaje;
+}
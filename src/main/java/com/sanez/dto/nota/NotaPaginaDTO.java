@@ -0,0 +1,19 @@
+package com.sanez.dto.nota;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaPaginaDTO {
+
+    private List<NotaSummary> notas;
+    // Valor para el parámetro "after" de la siguiente página; null si no hay más notas.
+    private Long nextCursor;
+}
@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,4 +17,8 @@ public class NotaResponseDTO {
     private String titulo;
     private String contenido;
     private Long usuarioId;
+    // Número de cambio del usuario en la última modificación (ver GET /api/notas/changes).
+    private long cambio;
+    private Instant updatedAt;
+    private long version;
 }
@@ -0,0 +1,17 @@
+package com.sanez.dto.nota;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Sugerencia de autocompletado: id y título de la nota.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaSugerenciaDTO {
+
+    private Long id;
+    private String titulo;
+}
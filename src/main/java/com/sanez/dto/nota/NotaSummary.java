@@ -0,0 +1,15 @@
+package com.sanez.dto.nota;
+
+// Proyección de lectura para los listados: solo id, título y un extracto del contenido calculado en la base de datos.
+// Evita hidratar la entidad Nota y transferir el TEXT completo de cada nota.
+public interface NotaSummary {
+
+    // Longitud máxima del extracto; debe coincidir con el substring de NotaRepository.
+    int PREVIEW_LENGTH = 200;
+
+    Long getId();
+
+    String getTitulo();
+
+    String getPreview();
+}
@@ -0,0 +1,22 @@
+package com.sanez.dto.perfil;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FavoritasRequestDTO {
+
+    @NotEmpty(message = "Debe incluir al menos una nota")
+    @Size(max = 1000, message = "No se pueden enviar más de 1000 notas por petición")
+    private List<@NotNull Long> notaIds;
+}
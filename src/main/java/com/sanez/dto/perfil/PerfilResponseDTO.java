@@ -14,6 +14,8 @@ public class PerfilResponseDTO {
     private Long id;
     private String nombre;
     private List<Long> notasFavoritas;
+    // @Version del perfil cargado; de ella sale el ETag de GET /api/perfiles/mi-perfil.
+    private long version;
 
 
 }
@@ -0,0 +1,8 @@
+package com.sanez.exception;
+
+
+public class PrecondicionFallidaException extends RuntimeException {
+    public PrecondicionFallidaException(String mensaje) {
+        super(mensaje);
+    }
+}
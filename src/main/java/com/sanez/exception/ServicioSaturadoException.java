@@ -0,0 +1,15 @@
+package com.sanez.exception;
+
+public class ServicioSaturadoException extends RuntimeException {
+
+    private final long retryAfterSegundos;
+
+    public ServicioSaturadoException(String mensaje, long retryAfterSegundos) {
+        super(mensaje);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
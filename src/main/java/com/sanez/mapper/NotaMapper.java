@@ -3,7 +3,6 @@ package com.sanez.mapper;
 
 import com.sanez.dto.nota.NotaRequestDTO;
 import com.sanez.dto.nota.NotaResponseDTO;
-import com.sanez.dto.nota.NotaUpdateDTO;
 import com.sanez.model.Nota;
 
 public class NotaMapper {
@@ -18,6 +17,9 @@ public class NotaMapper {
         notaResponseDTO.setTitulo(nota.getTitulo());
         notaResponseDTO.setContenido(nota.getContenido());
         notaResponseDTO.setUsuarioId(nota.getUsuario().getId());
+        notaResponseDTO.setCambio(nota.getCambio());
+        notaResponseDTO.setUpdatedAt(nota.getUpdatedAt());
+        notaResponseDTO.setVersion(nota.getVersion());
 
         return notaResponseDTO;
 
@@ -33,14 +35,4 @@ public class NotaMapper {
 
         return nota;
     }
-
-    public static void actualizarNotaDesdeDTO(Nota nota, NotaUpdateDTO notaUpdateDTO){
-        if(notaUpdateDTO.getTitulo() != null){
-            nota.setTitulo(notaUpdateDTO.getTitulo());
-        }
-        if(notaUpdateDTO.getContenido() != null){
-            nota.setContenido(notaUpdateDTO.getContenido());
-        }
-
-    }
 }
@@ -5,6 +5,10 @@ import com.sanez.dto.perfil.PerfilResponseDTO;
 import com.sanez.model.Perfil;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 @Component
 public class PerfilMapper {
 
@@ -13,7 +17,8 @@ public class PerfilMapper {
         PerfilResponseDTO perfilResponseDTO = new PerfilResponseDTO();
         perfilResponseDTO.setId(perfil.getId());
         perfilResponseDTO.setNombre(perfil.getNombre());
-        perfilResponseDTO.setNotasFavoritas(perfil.getNotasFavoritas());
+        perfilResponseDTO.setNotasFavoritas(new ArrayList<>(perfil.getNotasFavoritas()));
+        perfilResponseDTO.setVersion(perfil.getVersion());
 
         return perfilResponseDTO;
     }
@@ -23,7 +28,10 @@ public class PerfilMapper {
             perfil.setNombre(perfilRequestDTO.getNombre());
         }
         if(perfilRequestDTO.getNotasFavoritas() != null){
-            perfil.setNotasFavoritas(perfilRequestDTO.getNotasFavoritas());
+            // Se modifica el conjunto existente (no se sustituye) para que Hibernate escriba solo la diferencia.
+            Set<Long> nuevas = new LinkedHashSet<>(perfilRequestDTO.getNotasFavoritas());
+            perfil.getNotasFavoritas().retainAll(nuevas);
+            perfil.getNotasFavoritas().addAll(nuevas);
         }
     }
 
@@ -2,9 +2,17 @@ package com.sanez.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "notas")
+// El índice (usuario_id, id) sirve la paginación por cursor sin ordenar ni saltar filas.
+@Table(name = "notas", indexes = {
+        @Index(name = "idx_notas_usuario_id_id", columnList = "usuario_id, id"),
+        @Index(name = "idx_notas_usuario_id_cambio", columnList = "usuario_id, cambio")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,7 +29,20 @@ public class Nota {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String contenido;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long cambio; // Número de cambio del usuario en el que se creó o modificó por última vez
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    // Control de concurrencia optimista; se expone como ETag y se compara con If-Match al editar.
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.sanez.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+// Lápida de una nota eliminada: permite a los clientes de sincronización delta enterarse del borrado.
+@Entity
+@Table(name = "notas_eliminadas", indexes = {
+        @Index(name = "idx_notas_eliminadas_usuario_cambio", columnList = "usuario_id, cambio")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaEliminada {
+
+    @Id
+    private Long notaId; // Id que tenía la nota eliminada
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Usuario usuario;
+
+    @Column(nullable = false)
+    private long cambio; // Número de cambio del usuario en el que se eliminó
+
+    @Column(nullable = false)
+    private Instant eliminadaEn;
+}
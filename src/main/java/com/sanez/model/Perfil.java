@@ -5,9 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "perfil")
@@ -24,10 +25,19 @@ public class Perfil {
     @Column(nullable = false)
     private String nombre;
 
+    // Se incrementa en cada cambio del perfil, incluida la colección de favoritas; sirve de ETag.
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    // Conjunto ordenado por id de nota. Al ser un Set con columna no nula, la tabla tiene clave primaria
+    // (perfil_id, nota_id) y Hibernate inserta o borra solo las filas que cambian, sin reescribir la colección.
     @ElementCollection
     @CollectionTable(name = "perfil_notas_favoritas", joinColumns = @JoinColumn(name = "perfil_id"))
-    @Column(name = "nota_id")
-    private List<Long> notasFavoritas = new ArrayList<>();
+    @Column(name = "nota_id", nullable = false)
+    @OrderBy
+    private Set<Long> notasFavoritas = new LinkedHashSet<>();
     //private String backupProvider = "GOOGLE_DRIVER";
 
     @OneToOne
@@ -0,0 +1,45 @@
+package com.sanez.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "tokens_refresco", indexes = {
+        @Index(name = "idx_tokens_refresco_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_tokens_refresco_familia", columnList = "familia"),
+        @Index(name = "idx_tokens_refresco_expiracion", columnList = "expiracion")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRefresco {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String tokenHash; // SHA-256 del token; el token en claro nunca se guarda
+
+    @Column(nullable = false, length = 36)
+    private String familia; // Cadena de rotaciones originada en un mismo login
+
+    @Column(nullable = false)
+    private Instant expiracion;
+
+    @Column(nullable = false)
+    private boolean usado = false; // Un token de refresco solo puede canjearse una vez
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Usuario usuario;
+}
@@ -0,0 +1,31 @@
+package com.sanez.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "tokens_revocados", indexes = {
+        @Index(name = "idx_tokens_revocados_expiracion", columnList = "expiracion"),
+        @Index(name = "idx_tokens_revocados_creado", columnList = "creado")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocado {
+
+    @Id
+    @Column(length = 36)
+    private String jti; // Identificador único del JWT revocado
+
+    @Column(nullable = false)
+    private Instant expiracion; // Expiración original del token; después de esta fecha la entrada se purga
+
+    @Column(nullable = false)
+    private Instant creado; // Momento de la revocación (para sincronizar otros nodos)
+}
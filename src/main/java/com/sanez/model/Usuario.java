@@ -2,6 +2,7 @@ package com.sanez.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -41,6 +42,22 @@ public class Usuario {
     @Column
     private LocalDateTime passwordResetTokenExpiration; // Expiración del token de reset
 
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int tokenVersion = 0; // Se incrementa al cambiar la contraseña para invalidar JWT emitidos antes
+
+    // Contador de cambios en las notas del usuario (sincronización delta). Solo se modifica con el UPDATE atómico
+    // de UsuarioRepository.incrementarVersionNotas, nunca al guardar la entidad.
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long versionNotas = 0;
+
+    // Último número de cambio cuyas lápidas ya se purgaron (PurgaNotasEliminadas). Una sincronización con un
+    // token anterior no puede saber qué se borró y debe resincronizar desde cero.
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long cambioPurgado = 0;
+
     @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Nota> notas;
 
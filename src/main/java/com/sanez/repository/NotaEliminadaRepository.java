@@ -0,0 +1,36 @@
+package com.sanez.repository;
+
+import com.sanez.model.NotaEliminada;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface NotaEliminadaRepository extends JpaRepository<NotaEliminada, Long> {
+
+    // Lápidas del usuario en el rango de cambios (desde, hasta], como máximo "limit".
+    @Query("select e from NotaEliminada e where e.usuario.id = :usuarioId "
+            + "and e.cambio > :desde and e.cambio <= :hasta order by e.cambio asc, e.notaId asc")
+    List<NotaEliminada> findEliminadas(@Param("usuarioId") Long usuarioId,
+                                       @Param("desde") long desde,
+                                       @Param("hasta") long hasta,
+                                       Limit limit);
+
+    // Guarda en usuarios.cambio_purgado el último cambio de las lápidas anteriores a "limite" de cada usuario.
+    @Modifying
+    @Query(value = "update usuarios u set cambio_purgado = (select max(e.cambio) from notas_eliminadas e "
+            + "where e.usuario_id = u.id and e.eliminada_en < :limite) "
+            + "where exists (select 1 from notas_eliminadas e where e.usuario_id = u.id and e.eliminada_en < :limite)",
+            nativeQuery = true)
+    int registrarHorizontePurga(@Param("limite") Instant limite);
+
+    @Modifying
+    @Query("delete from NotaEliminada e where e.eliminadaEn < :limite")
+    int deleteAnteriores(@Param("limite") Instant limite);
+}
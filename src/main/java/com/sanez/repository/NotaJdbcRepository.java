@@ -0,0 +1,184 @@
+package com.sanez.repository;
+
+import com.sanez.dto.nota.NotaBusquedaDTO;
+import com.sanez.dto.nota.NotaResponseDTO;
+import com.sanez.model.Nota;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Escrituras masivas de notas con JDBC plano.
+// Hibernate no agrupa inserts de entidades con id IDENTITY (necesita el id de cada fila al persistir),
+// así que las cargas grandes se envían aquí como un único batch por lote.
+// También contiene la búsqueda de texto completo nativa de PostgreSQL (columna generada "busqueda").
+// Todas las escrituras registran el número de cambio del usuario para la sincronización delta.
+// La edición individual devuelve la fila actualizada en la misma sentencia (RETURNING en PostgreSQL,
+// FINAL TABLE en H2), sin volver a leer la nota.
+@Repository
+public class NotaJdbcRepository {
+
+    private static final String INSERT_NOTA = "insert into notas (titulo, contenido, usuario_id, cambio, updated_at) "
+            + "values (?, ?, ?, ?, ?)";
+    // Edición condicional: solo si la nota es del usuario y, con versión esperada >= 0, si la versión coincide.
+    // Los campos null conservan su valor actual. La usan tanto el PATCH individual como los lotes.
+    private static final String UPDATE_SI_VERSION = "update notas set titulo = coalesce(?, titulo), "
+            + "contenido = coalesce(?, contenido), cambio = ?, updated_at = ?, version = version + 1 "
+            + "where id = ? and usuario_id = ? and (? < 0 or version = ?)";
+    private static final String COLUMNAS_NOTA = "id, titulo, contenido, usuario_id, cambio, updated_at, version";
+    private static final String UPDATE_SI_VERSION_POSTGRES = UPDATE_SI_VERSION + " returning " + COLUMNAS_NOTA;
+    private static final String UPDATE_SI_VERSION_H2 =
+            "select " + COLUMNAS_NOTA + " from final table (" + UPDATE_SI_VERSION + ")";
+    private static final String DELETE_NOTA = "delete from notas where id = ? and usuario_id = ?";
+    private static final String INSERT_LAPIDA = "insert into notas_eliminadas (nota_id, usuario_id, cambio, eliminada_en) "
+            + "values (?, ?, ?, ?)";
+
+    // El ranking y la paginación se resuelven en la subconsulta; ts_headline (costoso) solo se calcula
+    // para las filas de la página.
+    private static final String BUSCAR_TEXTO = "select n.id, n.titulo, "
+            + "ts_headline('spanish', n.contenido, r.consulta, "
+            + "'StartSel=<mark>, StopSel=</mark>, MaxFragments=1, MaxWords=30, MinWords=10') as preview, "
+            + "r.puntuacion "
+            + "from (select id, ts_rank(busqueda, q) as puntuacion, q as consulta "
+            + "from notas, websearch_to_tsquery('spanish', ?) q "
+            + "where usuario_id = ? and busqueda @@ q "
+            + "order by puntuacion desc, id desc limit ? offset ?) r "
+            + "join notas n on n.id = r.id "
+            + "order by r.puntuacion desc, n.id desc";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String updateSiVersion;
+
+    // Edición de un lote: título y/o contenido (null conserva el valor) y versión esperada (< 0 sin comprobación).
+    public record EdicionNota(Long id, String titulo, String contenido, long versionEsperada) {
+    }
+
+    public NotaJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+        this.updateSiVersion = postgres ? UPDATE_SI_VERSION_POSTGRES : UPDATE_SI_VERSION_H2;
+    }
+
+    // Edita título y/o contenido (null conserva el valor) de una nota propia y devuelve la fila resultante.
+    // Vacío si la nota no existe, es de otro usuario o su versión no es la esperada.
+    public Optional<NotaResponseDTO> actualizarSiVersion(Long id, Long usuarioId, long versionEsperada,
+                                                         String titulo, String contenido, long cambio, Instant ahora) {
+        List<NotaResponseDTO> filas = jdbcTemplate.query(updateSiVersion, ps -> {
+            ps.setString(1, titulo);
+            ps.setString(2, contenido);
+            ps.setLong(3, cambio);
+            ps.setTimestamp(4, Timestamp.from(ahora));
+            ps.setLong(5, id);
+            ps.setLong(6, usuarioId);
+            ps.setLong(7, versionEsperada);
+            ps.setLong(8, versionEsperada);
+        }, (rs, fila) -> new NotaResponseDTO(
+                rs.getLong("id"),
+                rs.getString("titulo"),
+                rs.getString("contenido"),
+                rs.getLong("usuario_id"),
+                rs.getLong("cambio"),
+                rs.getTimestamp("updated_at").toInstant(),
+                rs.getLong("version")
+        ));
+        return filas.stream().findFirst();
+    }
+
+    // Inserta las notas (solo título y contenido) para el usuario indicado en un batch JDBC
+    // y devuelve los ids generados en el mismo orden.
+    public List<Long> insertarLote(Long usuarioId, long cambio, List<Nota> notas) {
+        if (notas.isEmpty()) {
+            return List.of();
+        }
+        Timestamp ahora = Timestamp.from(Instant.now());
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_NOTA, new String[]{"id"})) {
+                for (Nota nota : notas) {
+                    ps.setString(1, nota.getTitulo());
+                    ps.setString(2, nota.getContenido());
+                    ps.setLong(3, usuarioId);
+                    ps.setLong(4, cambio);
+                    ps.setTimestamp(5, ahora);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(notas.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    // Actualiza notas propias en un batch JDBC y devuelve las filas afectadas por cada edición, en el mismo orden
+    // (0 si la nota no existe, es de otro usuario o su versión no es la esperada; SUCCESS_NO_INFO si el driver
+    // no lo informa).
+    public int[] actualizarLote(Long usuarioId, long cambio, List<EdicionNota> ediciones) {
+        if (ediciones.isEmpty()) {
+            return new int[0];
+        }
+        Timestamp ahora = Timestamp.from(Instant.now());
+        return jdbcTemplate.batchUpdate(UPDATE_SI_VERSION, ediciones, ediciones.size(), (ps, edicion) -> {
+            ps.setString(1, edicion.titulo());
+            ps.setString(2, edicion.contenido());
+            ps.setLong(3, cambio);
+            ps.setTimestamp(4, ahora);
+            ps.setLong(5, edicion.id());
+            ps.setLong(6, usuarioId);
+            ps.setLong(7, edicion.versionEsperada());
+            ps.setLong(8, edicion.versionEsperada());
+        })[0];
+    }
+
+    // Elimina notas propias en un batch JDBC, deja una lápida por cada una y devuelve las filas borradas
+    // por cada id, en el mismo orden.
+    public int[] eliminarLote(Long usuarioId, long cambio, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new int[0];
+        }
+        int[] filas = jdbcTemplate.batchUpdate(DELETE_NOTA, ids, ids.size(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setLong(2, usuarioId);
+        })[0];
+        // Solo se registra lápida para las filas realmente borradas (SUCCESS_NO_INFO cuenta como borrada).
+        List<Long> borradas = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (filas[i] != 0) {
+                borradas.add(ids.get(i));
+            }
+        }
+        if (borradas.isEmpty()) {
+            return filas;
+        }
+        Timestamp ahora = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_LAPIDA, borradas, borradas.size(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setLong(2, usuarioId);
+            ps.setLong(3, cambio);
+            ps.setTimestamp(4, ahora);
+        });
+        return filas;
+    }
+
+    // Búsqueda de texto completo en PostgreSQL (configuración "spanish"), ordenada por ts_rank.
+    public List<NotaBusquedaDTO> buscarTextoCompleto(Long usuarioId, String consulta, int desplazamiento, int limite) {
+        return jdbcTemplate.query(BUSCAR_TEXTO, (rs, fila) -> new NotaBusquedaDTO(
+                rs.getLong("id"),
+                rs.getString("titulo"),
+                rs.getString("preview"),
+                rs.getDouble("puntuacion")
+        ), consulta, usuarioId, limite, desplazamiento);
+    }
+}
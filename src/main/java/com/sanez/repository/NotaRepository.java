@@ -1,12 +1,104 @@
 package com.sanez.repository;
 
+import com.sanez.dto.nota.NotaSummary;
 import com.sanez.model.Nota;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NotaRepository extends JpaRepository<Nota, Long> {
-    List<Nota> findByUsuarioId(Long usuarioId);
+
+    // Id y propietario de una nota, sin cargar la entidad.
+    interface NotaPropietario {
+        Long getId();
+
+        Long getUsuarioId();
+    }
+
+    // Id y título de una nota (autocompletado).
+    interface NotaTitulo {
+        Long getId();
+
+        String getTitulo();
+    }
+
+    // Texto completo de una nota para indexarla, sin hidratar la entidad.
+    interface NotaTexto {
+        Long getId();
+
+        String getTitulo();
+
+        String getContenido();
+    }
+
+    // Página por cursor (keyset): notas del usuario con id mayor que el cursor, en orden de id.
+    // Devuelve solo el resumen; el extracto se recorta en la base de datos.
+    @Query("select n.id as id, n.titulo as titulo, "
+            + "substring(n.contenido, 1, " + NotaSummary.PREVIEW_LENGTH + ") as preview "
+            + "from Nota n where n.usuario.id = :usuarioId and n.id > :despuesDe order by n.id asc")
+    List<NotaSummary> findPaginaPorUsuario(@Param("usuarioId") Long usuarioId,
+                                    @Param("despuesDe") Long despuesDe,
+                                    Limit limit);
+
+    // Recorre todas las notas del usuario con un cursor JDBC (fetch size) en lugar de cargarlas en memoria.
+    // Debe consumirse dentro de una transacción y cerrarse al terminar.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select n from Nota n where n.usuario.id = :usuarioId order by n.id asc")
+    Stream<Nota> streamByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Id, título y contenido de todas las notas del usuario con cursor JDBC, para construir el índice de búsqueda.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select n.id as id, n.titulo as titulo, n.contenido as contenido from Nota n where n.usuario.id = :usuarioId")
+    Stream<NotaTexto> streamTextosByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Títulos de todas las notas del usuario, para cargar el índice de autocompletado.
+    @Query("select n.id as id, n.titulo as titulo from Nota n where n.usuario.id = :usuarioId")
+    List<NotaTitulo> findTitulosByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Resúmenes de las notas indicadas del usuario (resultados de búsqueda), en una consulta IN por clave.
+    @Query("select n.id as id, n.titulo as titulo, "
+            + "substring(n.contenido, 1, " + NotaSummary.PREVIEW_LENGTH + ") as preview "
+            + "from Nota n where n.usuario.id = :usuarioId and n.id in :ids")
+    List<NotaSummary> findResumenes(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    // Notas del usuario creadas o modificadas en el rango de cambios (desde, hasta], como máximo "limit".
+    @Query("select n from Nota n where n.usuario.id = :usuarioId and n.cambio > :desde and n.cambio <= :hasta "
+            + "order by n.cambio asc, n.id asc")
+    List<Nota> findCambios(@Param("usuarioId") Long usuarioId,
+                           @Param("desde") long desde,
+                           @Param("hasta") long hasta,
+                           Limit limit);
+
+    // Borrado con el predicado de propietario en la misma sentencia. Devuelve 0 si no existe o es de otro usuario.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Nota n where n.id = :id and n.usuario.id = :usuarioId")
+    int eliminarDeUsuario(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
+
+    // Comprueba la propiedad con una consulta sobre el índice, sin cargar la nota.
+    boolean existsByIdAndUsuarioId(Long id, Long usuarioId);
+
+    // Cuántas de las notas indicadas son del usuario (comprobación de propiedad por lotes).
+    long countByUsuarioIdAndIdIn(Long usuarioId, Collection<Long> ids);
+
+    // Existencia y propietario de varias notas en una sola consulta IN (operaciones por lotes).
+    @Query("select n.id as id, n.usuario.id as usuarioId from Nota n where n.id in :ids")
+    List<NotaPropietario> findPropietarios(@Param("ids") Collection<Long> ids);
 }
@@ -2,8 +2,56 @@ package com.sanez.repository;
 
 import com.sanez.model.Perfil;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Optional;
+
 @Repository
 public interface PerfilRepository extends JpaRepository<Perfil, Long> {
+
+    // Id y versión del perfil del usuario, para calcular el ETag sin cargar el perfil ni sus favoritas.
+    @Query("select p.id as id, p.version as version from Perfil p where p.usuario.id = :usuarioId")
+    Optional<PerfilVersion> findVersionByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Perfil del usuario con sus favoritas en una sola consulta, para leerlo fuera de una transacción.
+    @Query("select p from Perfil p left join fetch p.notasFavoritas where p.usuario.id = :usuarioId")
+    Optional<Perfil> findConFavoritasByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Id del perfil del usuario con la fila bloqueada hasta el commit (select ... for update en H2 y PostgreSQL).
+    // Serializa las altas de favoritas del mismo perfil: sin él, dos INSERT ... SELECT NOT EXISTS simultáneos
+    // con notas en común no se ven entre sí y el segundo viola la clave primaria.
+    @Query(value = "select id from perfil where usuario_id = :usuarioId for update", nativeQuery = true)
+    Optional<Long> bloquearIdByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Añade a favoritas las notas indicadas que son del usuario y aún no lo eran, en una sola sentencia.
+    // El join con notas comprueba existencia y propietario; devuelve el número de filas insertadas.
+    @Modifying
+    @Query(value = "insert into perfil_notas_favoritas (perfil_id, nota_id) "
+            + "select cast(:perfilId as bigint), n.id from notas n "
+            + "where n.usuario_id = :usuarioId and n.id in (:notaIds) and not exists ("
+            + "select 1 from perfil_notas_favoritas f where f.perfil_id = :perfilId and f.nota_id = n.id)",
+            nativeQuery = true)
+    int agregarFavoritas(@Param("perfilId") Long perfilId,
+                         @Param("usuarioId") Long usuarioId,
+                         @Param("notaIds") Collection<Long> notaIds);
+
+    // Quita de favoritas las notas indicadas; devuelve el número de filas borradas.
+    @Modifying
+    @Query(value = "delete from perfil_notas_favoritas where perfil_id = :perfilId and nota_id in (:notaIds)",
+            nativeQuery = true)
+    int eliminarFavoritas(@Param("perfilId") Long perfilId, @Param("notaIds") Collection<Long> notaIds);
+
+    // Las sentencias nativas de favoritas no pasan por @Version: se incrementa aquí para que cambie el ETag.
+    @Modifying
+    @Query("update Perfil p set p.version = p.version + 1 where p.id = :id")
+    int incrementarVersion(@Param("id") Long id);
+
+    interface PerfilVersion {
+        Long getId();
+        long getVersion();
+    }
 }
@@ -0,0 +1,36 @@
+package com.sanez.repository;
+
+import com.sanez.model.TokenRefresco;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface TokenRefrescoRepository extends JpaRepository<TokenRefresco, Long> {
+
+    @EntityGraph(attributePaths = "usuario")
+    Optional<TokenRefresco> findByTokenHash(String tokenHash);
+
+    // Marca el token como usado solo si nadie lo canjeó antes (0 filas = reutilización).
+    @Modifying
+    @Query("update TokenRefresco t set t.usado = true where t.id = :id and t.usado = false")
+    int marcarUsado(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from TokenRefresco t where t.familia = :familia")
+    int deleteByFamilia(@Param("familia") String familia);
+
+    @Modifying
+    @Query("delete from TokenRefresco t where t.usuario.id = :usuarioId")
+    int deleteByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Modifying
+    @Query("delete from TokenRefresco t where t.expiracion <= :ahora")
+    int deleteExpirados(@Param("ahora") Instant ahora);
+}
@@ -0,0 +1,27 @@
+package com.sanez.repository;
+
+import com.sanez.model.TokenRevocado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, String> {
+
+    @Query("select t.jti from TokenRevocado t where t.expiracion > :ahora")
+    List<String> findJtiVigentes(@Param("ahora") Instant ahora);
+
+    @Query("select t.jti from TokenRevocado t where t.creado > :desde")
+    List<String> findJtiRevocadosDesde(@Param("desde") Instant desde);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocado t where t.expiracion <= :ahora")
+    int deleteExpirados(@Param("ahora") Instant ahora);
+}
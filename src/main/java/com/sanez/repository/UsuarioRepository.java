@@ -2,7 +2,11 @@ package com.sanez.repository;
 
 import com.sanez.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -13,4 +17,32 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByVerificationToken(String token);
 
     Optional<Usuario> findByPasswordResetToken(String token);
+
+    @Query("select u.tokenVersion from Usuario u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    // Sustituye solo el hash de la contraseña (re-hash por cambio de coste); no toca tokenVersion.
+    @Transactional
+    @Modifying
+    @Query("update Usuario u set u.password = :password where u.id = :id")
+    int actualizarPassword(@Param("id") Long id, @Param("password") String password);
+
+    // Incrementa el contador de cambios de notas. El bloqueo de fila serializa las escrituras del usuario,
+    // así los números de cambio se confirman en orden.
+    @Transactional
+    @Modifying
+    @Query(value = "update usuarios set version_notas = version_notas + 1 where id = :id", nativeQuery = true)
+    int incrementarVersionNotas(@Param("id") Long id);
+
+    @Query("select u.versionNotas from Usuario u where u.id = :id")
+    Optional<Long> findVersionNotasById(@Param("id") Long id);
+
+    // Contador de cambios y horizonte de purga de lápidas en una sola consulta (sincronización delta).
+    @Query("select u.versionNotas as versionNotas, u.cambioPurgado as cambioPurgado from Usuario u where u.id = :id")
+    Optional<EstadoCambios> findEstadoCambiosById(@Param("id") Long id);
+
+    interface EstadoCambios {
+        long getVersionNotas();
+        long getCambioPurgado();
+    }
 }
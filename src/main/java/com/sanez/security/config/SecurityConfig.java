@@ -1,7 +1,12 @@
 package com.sanez.security.config;
 
+import com.sanez.security.crypto.AdaptiveBCryptPasswordEncoder;
+import com.sanez.security.crypto.BoundedPasswordEncoder;
 import com.sanez.security.jwt.AuthEntryPointJwt;
 import com.sanez.security.jwt.AuthTokenFilter;
+import com.sanez.security.ratelimit.AuthRateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,8 +16,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -25,21 +30,28 @@ public class SecurityConfig {
 
     private final AuthEntryPointJwt unauthorizedHandler;
     private final AuthTokenFilter authTokenFilter;
+    private final AuthRateLimitFilter authRateLimitFilter;
     private final UserDetailsService userDetailsService;
 
-    public SecurityConfig(AuthEntryPointJwt unauthorizedHandler, AuthTokenFilter authTokenFilter, UserDetailsService userDetailsService) {
+    public SecurityConfig(AuthEntryPointJwt unauthorizedHandler, AuthTokenFilter authTokenFilter,
+                          AuthRateLimitFilter authRateLimitFilter, UserDetailsService userDetailsService) {
         this.unauthorizedHandler = unauthorizedHandler;
         this.authTokenFilter = authTokenFilter;
+        this.authRateLimitFilter = authRateLimitFilter;
         this.userDetailsService = userDetailsService;
     }
 
     // Configura el AuthenticationManager para autenticar usuarios con UserDetailsService y PasswordEncoder.
     @Bean
-    public AuthenticationManager authenticationManager() {
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
         // Crea un proveedor de autenticación basado en DAO (base de datos).
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService); // Usa UserDetailsService para cargar usuarios.
-        authProvider.setPasswordEncoder(passwordEncoder()); // Usa BCrypt para validar contraseñas.
+        authProvider.setPasswordEncoder(passwordEncoder); // Usa BCrypt para validar contraseñas.
+        // Tras un login correcto re-hashea las contraseñas guardadas con un coste distinto al vigente.
+        if (userDetailsService instanceof UserDetailsPasswordService passwordService) {
+            authProvider.setUserDetailsPasswordService(passwordService);
+        }
         return new ProviderManager(List.of(authProvider)); // Devuelve el AuthenticationManager.
     }
 
@@ -57,6 +69,9 @@ public class SecurityConfig {
                         // Permitir acceso público a Swagger
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html",
                                 "/api-docs/**").permitAll()
+                        // Health check público; el resto de métricas solo para ADMIN
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Permite acceso público a endpoints de autenticación
                         .requestMatchers("/api/auth/**").permitAll()
                         // Requiere rol USER o ADMIN para endpoints de notas
@@ -72,12 +87,23 @@ public class SecurityConfig {
                 );
 
         http.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class);
+        // Limita los endpoints de login/registro/recuperación antes de cualquier trabajo de autenticación.
+        http.addFilterBefore(authRateLimitFilter, AuthTokenFilter.class);
         return http.build();
     }
 
-    // Define el codificador de contraseñas (BCrypt).
+    // Define el codificador de contraseñas (BCrypt) ejecutado en un pool acotado para no bloquear los hilos HTTP.
+    // Con threads=0 se usa un hilo por núcleo disponible; con strength=auto el coste se calibra al arrancar.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") String strength,
+                                           @Value("${security.bcrypt.target-ms:80}") long targetMs,
+                                           @Value("${security.password-hashing.threads:0}") int threads,
+                                           @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${security.password-hashing.retry-after-seconds:2}") long retryAfterSegundos,
+                                           MeterRegistry meterRegistry) {
+        int hilos = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                AdaptiveBCryptPasswordEncoder.desdeConfiguracion(strength, targetMs), hilos, queueCapacity,
+                retryAfterSegundos, meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.sanez.security.crypto;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// BCrypt cuyo coste puede calibrarse al arrancar según la latencia objetivo del nodo.
+// upgradeEncoding devuelve true para cualquier hash con un coste distinto al vigente (mayor o menor),
+// de modo que DaoAuthenticationProvider lo re-hashea en el siguiente login correcto sin migraciones.
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    // Nunca se baja del coste por defecto de BCrypt, aunque el nodo sea lento.
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 31;
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2(a|y|b)?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    // Crea el encoder con el coste fijo indicado o, si es "auto", con el calibrado para targetMs.
+    public static AdaptiveBCryptPasswordEncoder desdeConfiguracion(String strength, long targetMs) {
+        if ("auto".equalsIgnoreCase(strength.trim())) {
+            return new AdaptiveBCryptPasswordEncoder(calibrar(targetMs));
+        }
+        return new AdaptiveBCryptPasswordEncoder(Integer.parseInt(strength.trim()));
+    }
+
+    // Devuelve el mayor coste cuyo hash tarda como mucho targetMs en este nodo (mínimo MIN_STRENGTH).
+    // Cada punto de coste duplica el tiempo, así que se para en cuanto se supera el objetivo.
+    public static int calibrar(long targetMs) {
+        int elegido = MIN_STRENGTH;
+        for (int coste = MIN_STRENGTH; coste <= MAX_STRENGTH; coste++) {
+            long ms = medir(coste);
+            logger.info("Calibración BCrypt: coste {} -> {} ms", coste, ms);
+            if (ms > targetMs) {
+                break;
+            }
+            elegido = coste;
+        }
+        logger.info("Coste BCrypt elegido: {} (objetivo {} ms)", elegido, targetMs);
+        return elegido;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(2)) != strength;
+    }
+
+    // Mejor de dos ejecuciones para descartar el calentamiento de la JIT.
+    private static long medir(int coste) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(coste);
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long inicio = System.nanoTime();
+            encoder.encode("calibracion-bcrypt");
+            mejor = Math.min(mejor, (System.nanoTime() - inicio) / 1_000_000);
+        }
+        return mejor;
+    }
+}
@@ -0,0 +1,111 @@
+package com.sanez.security.crypto;
+
+import com.sanez.exception.ServicioSaturadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// PasswordEncoder que ejecuta el hashing (BCrypt) en un pool propio de tamaño fijo con cola acotada.
+// Así una ráfaga de logins no ocupa todos los hilos de Tomcat con CPU: si la cola está llena se rechaza
+// de inmediato con 503 + Retry-After en lugar de degradar el resto de endpoints.
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSegundos;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rechazos;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long retryAfterSegundos, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.retryAfterSegundos = retryAfterSegundos;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("password.hash")
+                .description("Tiempo de cálculo del hash de contraseña")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash")
+                .description("Tiempo de cálculo del hash de contraseña")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rechazos = Counter.builder("password.hash.rejected")
+                .description("Operaciones de hashing rechazadas por cola llena")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.size", executor, e -> e.getQueue().size())
+                .description("Operaciones de hashing en espera")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operaciones de hashing en ejecución")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    // No calcula ningún hash: solo inspecciona el prefijo, por eso se resuelve en el hilo llamador.
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T ejecutar(Callable<T> tarea) {
+        Future<T> future;
+        try {
+            future = executor.submit(tarea);
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new ServicioSaturadoException(
+                    "El servicio de autenticación está saturado. Por favor, intenta más tarde.", retryAfterSegundos);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error al calcular el hash de la contraseña", e.getCause());
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.sanez.security.jwt;
 
+import com.sanez.security.service.CustomUserDetails;
+import com.sanez.security.service.GrantedAuthorities;
+import com.sanez.security.service.TokenRevocationService;
+import com.sanez.security.service.TokenVersionCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,10 +28,20 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final TokenRevocationService tokenRevocationService;
+    // Si está activo, el principal se reconstruye desde los claims del token en lugar de consultar la base de datos.
+    private final boolean statelessPrincipal;
 
-    public AuthTokenFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public AuthTokenFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                           TokenVersionCache tokenVersionCache,
+                           TokenRevocationService tokenRevocationService,
+                           @Value("${jwt.stateless-principal:false}") boolean statelessPrincipal) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -51,26 +66,35 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         try {
             // Extrae el token JWT del header Authorization.
             String jwt = jwtUtil.getJwtFromHeader(request);
-            // Valida el token y autentica al usuario si es válido.
-            if (jwt != null && jwtUtil.validateToken(jwt)) {
+            // Verifica el token una sola vez; el resultado se reutiliza durante toda la petición.
+            VerifiedJwt verified = jwt != null ? jwtUtil.verifyToken(jwt) : null;
+            // Descarta tokens revocados explícitamente (cierre de sesión).
+            if (verified != null && tokenRevocationService.isRevoked(verified.getJti())) {
+                logger.warn("Token revocado: {}", verified.getUsername());
+                verified = null;
+            }
+            if (verified != null) {
+                request.setAttribute(VerifiedJwt.REQUEST_ATTRIBUTE, verified);
                 // Obtiene el username (email) del token.
-                String username = jwtUtil.getUsernameFromToken(jwt);
+                String username = verified.getUsername();
 
                 // Verifica si no hay autenticación previa en el contexto.
                 if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // Carga los detalles del usuario desde la base de datos.
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                    // Crea un objeto de autenticación con los detalles del usuario y sus roles.
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    // Añade detalles de la solicitud (como IP, headers) al objeto de autenticación.
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    // Establece la autenticación en el contexto de seguridad.
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    // Loggea la autenticación exitosa.
-                    logger.debug("User authenticated: {} with roles: {}", username, userDetails.getAuthorities());
+                    // Obtiene el principal desde los claims o desde la base de datos según el modo configurado.
+                    UserDetails userDetails = resolverPrincipal(verified);
+
+                    if (userDetails != null) {
+                        // Crea un objeto de autenticación con los detalles del usuario y sus roles.
+                        UsernamePasswordAuthenticationToken authentication =
+                                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        // Añade detalles de la solicitud (como IP, headers) al objeto de autenticación.
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                        // Establece la autenticación en el contexto de seguridad.
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        // Loggea la autenticación exitosa.
+                        logger.debug("User authenticated: {} with roles: {}", username, userDetails.getAuthorities());
+                    }
                 }
             }
         } catch (Exception e) {
@@ -81,4 +105,27 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         // Continúa con la cadena de filtros.
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Devuelve el principal del token o null si el token fue revocado por un cambio de credenciales.
+    private UserDetails resolverPrincipal(VerifiedJwt verified) {
+        if (statelessPrincipal && verified.getUserId() != null) {
+            // Sin consulta a usuarios: solo se compara la versión de credenciales contra la caché.
+            Integer versionActual = tokenVersionCache.getCurrentVersion(verified.getUserId());
+            if (versionActual == null || versionActual != verified.getTokenVersion()) {
+                logger.warn("Token rechazado por versión de credenciales obsoleta: {}", verified.getUsername());
+                return null;
+            }
+            return new CustomUserDetails(verified.getUserId(), verified.getUsername(), null,
+                    GrantedAuthorities.of(verified.getRoles()), versionActual);
+        }
+
+        // Carga los detalles del usuario desde la base de datos.
+        UserDetails userDetails = userDetailsService.loadUserByUsername(verified.getUsername());
+        if (userDetails instanceof CustomUserDetails customUser
+                && customUser.getTokenVersion() != verified.getTokenVersion()) {
+            logger.warn("Token rechazado por versión de credenciales obsoleta: {}", verified.getUsername());
+            return null;
+        }
+        return userDetails;
+    }
+}
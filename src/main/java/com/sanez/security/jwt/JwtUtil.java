@@ -13,9 +13,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 // Clase utilitaria para manejar operaciones relacionadas con tokens JWT (generación, validación, extracción de datos).
@@ -24,17 +24,26 @@ public class JwtUtil {
     // Logger para registrar eventos y errores relacionados con JWT.
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
-    // Inyecta la clave secreta para firmar tokens desde application.properties (debe ser Base64).
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    // Inyecta el tiempo de expiración de tokens de acceso en milisegundos (ej. 3600000 = 1 hora).
-    @Value("${jwt.expiration}")
-    private long jwtExpirationMs;
-
-    // Inyecta el tiempo de expiración de tokens de refresco en milisegundos (no usado actualmente).
-    @Value("${jwt.refreshExpiration}")
-    private long jwtRefreshExpirationMs;
+    // Tiempo de expiración de tokens de acceso en milisegundos (ej. 3600000 = 1 hora).
+    private final long jwtExpirationMs;
+
+    // Clave de firma y parser construidos una sola vez al arrancar (ambos son inmutables y thread-safe).
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+
+    // Caché de tokens ya verificados para no repetir el HMAC en cada petición con el mismo token.
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    // Recibe la clave secreta (Base64) y la expiración desde application.properties.
+    // Los tokens de refresco son opacos y los emite RefreshTokenService.
+    public JwtUtil(@Value("${jwt.secret}") String jwtSecret,
+                   @Value("${jwt.expiration}") long jwtExpirationMs,
+                   VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+    }
 
     // Genera un token JWT de acceso para un usuario autenticado.
     public String generateToken(UserDetails userDetails) {
@@ -47,6 +56,7 @@ public class JwtUtil {
         // Construye el token base con subject (username), roles, fechas de emisión y expiración.
         JwtBuilder builder = Jwts.builder()
                 .subject(userDetails.getUsername()) // Establece el email/username como "subject".
+                .id(UUID.randomUUID().toString()) // Identificador único (jti) que permite revocar el token.
                 .claim("roles", roles) // Añade los roles como claim personalizado.
                 .issuedAt(new Date()) // Fecha de emisión (ahora).
                 .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs)); // Fecha de expiración.
@@ -54,51 +64,11 @@ public class JwtUtil {
         // Si el UserDetails es una instancia de CustomUserDetails, incluye el ID del usuario en el token.
         if (userDetails instanceof CustomUserDetails customUser) {
             builder.claim("userId", customUser.getId()); // Añade el ID del usuario como claim.
+            builder.claim("tv", customUser.getTokenVersion()); // Versión de credenciales vigente al emitir.
         }
 
         // Firma el token con la clave secreta y lo genera como string.
-        return builder.signWith(getSigningKey()).compact();
-    }
-
-    // Genera un token de refresco (no usado actualmente, pero preparado para endpoints de refresh).
-    public String generateRefreshToken(UserDetails userDetails) {
-        String username = userDetails.getUsername();
-        // Construye el token de refresco base con subject (username), fechas de emisión y expiración más larga.
-        JwtBuilder builder = Jwts.builder()
-                .subject(username)
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + jwtRefreshExpirationMs));
-
-        // Si el UserDetails es una instancia de CustomUserDetails, incluye el ID del usuario en el token de refresco.
-        if (userDetails instanceof CustomUserDetails customUser) {
-            builder.claim("userId", customUser.getId()); // Añade el ID del usuario como claim.
-        }
-
-        // Firma el token con la clave secreta y lo genera como string.
-        return builder.signWith(getSigningKey()).compact();
-    }
-
-    // Genera un nuevo token de acceso a partir de un token de refresco válido (no usado actualmente).
-    public String refreshAccessToken(String refreshToken) {
-        // Valida el token de refresco.
-        if (validateToken(refreshToken)) {
-            // Extrae el username del token de refresco.
-            String username = getUsernameFromToken(refreshToken);
-            // Construye el nuevo token de acceso con expiración estándar.
-            JwtBuilder builder = Jwts.builder()
-                    .subject(username)
-                    .issuedAt(new Date())
-                    .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs));
-
-            // Si el token de refresco contiene userId, lo incluye en el nuevo token de acceso.
-            Long userId = getUserIdFromToken(refreshToken);
-            if (userId != null) {
-                builder.claim("userId", userId);
-            }
-
-            return builder.signWith(getSigningKey()).compact();
-        }
-        throw new RuntimeException("Invalid refresh token");
+        return builder.signWith(signingKey).compact();
     }
 
     // Extrae el token JWT del header Authorization de la solicitud HTTP.
@@ -113,86 +83,63 @@ public class JwtUtil {
         return null; // Devuelve null si no hay token válido.
     }
 
-    // Valida un token JWT verificando su firma, formato, y expiración.
-    public boolean validateToken(String authToken) {
+    // Verifica firma, formato y expiración del token y devuelve sus claims ya extraídos.
+    // Devuelve null si el token no es válido. Es la única operación que paga el coste del HMAC.
+    public VerifiedJwt verifyToken(String authToken) {
+        if (authToken == null || authToken.isEmpty()) {
+            logger.error("JWT claims string is empty"); // Claims vacíos.
+            return null;
+        }
+        // Un acierto en caché implica que este mismo token ya pasó la verificación y no ha expirado.
+        VerifiedJwt cached = verifiedTokenCache.get(authToken);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            // Parsea el token usando la clave secreta para verificar su integridad.
-            Jwts.parser().verifyWith((SecretKey) getSigningKey()).build().parseSignedClaims(authToken);
-            return true; // Token válido.
+            Claims claims = jwtParser.parseSignedClaims(authToken).getPayload();
+            VerifiedJwt verified = VerifiedJwt.fromClaims(claims);
+            verifiedTokenCache.put(authToken, verified);
+            return verified;
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage()); // Token mal formado.
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage()); // Token expirado.
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage()); // Formato no soportado.
+        } catch (JwtException e) {
+            logger.error("JWT signature is invalid: {}", e.getMessage()); // Firma incorrecta.
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage()); // Claims vacíos.
         }
-        return false; // Token inválido.
+        return null; // Token inválido.
+    }
+
+    // Valida un token JWT verificando su firma, formato, y expiración.
+    public boolean validateToken(String authToken) {
+        return verifyToken(authToken) != null;
     }
 
     // Extrae el username (subject) de un token JWT válido.
     public String getUsernameFromToken(String token) {
-        // Parsea el token y obtiene el subject (email/username).
-        return Jwts.parser()
-                .verifyWith((SecretKey) getSigningKey())
-                .build().parseSignedClaims(token)
-                .getPayload().getSubject();
+        VerifiedJwt verified = verifyToken(token);
+        return verified != null ? verified.getUsername() : null;
     }
 
     // Extrae el ID del usuario de un token JWT válido (devuelve null si no existe el claim).
     public Long getUserIdFromToken(String token) {
-        try {
-            // Parsea el token y obtiene los claims para extraer el userId.
-            Claims claims = Jwts.parser()
-                    .verifyWith((SecretKey) getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            // Obtiene el claim "userId" como Long (devuelve null si no existe).
-            return claims.get("userId", Long.class);
-        } catch (Exception e) {
-            logger.error("Error extracting userId from token: {}", e.getMessage());
-            return null; // Devuelve null si hay algún error al extraer el ID.
-        }
+        VerifiedJwt verified = verifyToken(token);
+        return verified != null ? verified.getUserId() : null;
     }
 
     // Extrae los roles de un token JWT válido (devuelve lista vacía si no existen).
-    @SuppressWarnings("unchecked")
     public List<String> getRolesFromToken(String token) {
-        try {
-            // Parsea el token y obtiene los claims para extraer los roles.
-            Claims claims = Jwts.parser()
-                    .verifyWith((SecretKey) getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            // Obtiene el claim "roles" como lista de strings.
-            return (List<String>) claims.get("roles");
-        } catch (Exception e) {
-            logger.error("Error extracting roles from token: {}", e.getMessage());
-            return List.of(); // Devuelve lista vacía si hay algún error al extraer los roles.
-        }
+        VerifiedJwt verified = verifyToken(token);
+        return verified != null ? verified.getRoles() : List.of();
     }
 
     // Extrae la fecha de expiración de un token JWT válido.
     public Date getExpirationDateFromToken(String token) {
-        try {
-            // Parsea el token y obtiene la fecha de expiración.
-            return Jwts.parser()
-                    .verifyWith((SecretKey) getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getExpiration();
-        } catch (Exception e) {
-            logger.error("Error extracting expiration date from token: {}", e.getMessage());
-            return null; // Devuelve null si hay algún error al extraer la fecha.
-        }
-    }
-
-    // Crea la clave de firma a partir de jwt.secret (decodificada de Base64).
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        VerifiedJwt verified = verifyToken(token);
+        return verified != null ? verified.getExpiration() : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package com.sanez.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.List;
+
+// Resultado inmutable de verificar un JWT: la firma y la expiración ya fueron comprobadas
+// y los claims se leen una sola vez, de modo que el resto de la petición no vuelve a parsear el token.
+public final class VerifiedJwt {
+
+    // Atributo de la petición HTTP donde AuthTokenFilter deja el token verificado.
+    public static final String REQUEST_ATTRIBUTE = VerifiedJwt.class.getName();
+
+    private final String jti;
+    private final String username;
+    private final Long userId;
+    private final List<String> roles;
+    private final Date expiration;
+    private final int tokenVersion;
+
+    public VerifiedJwt(String jti, String username, Long userId, List<String> roles, Date expiration,
+                       int tokenVersion) {
+        this.jti = jti;
+        this.username = username;
+        this.userId = userId;
+        this.roles = roles;
+        this.expiration = expiration;
+        this.tokenVersion = tokenVersion;
+    }
+
+    // Construye el resultado a partir de los claims ya verificados por el parser.
+    static VerifiedJwt fromClaims(Claims claims) {
+        Object rawRoles = claims.get("roles");
+        List<String> roles = rawRoles instanceof List<?> list
+                ? list.stream().map(String::valueOf).toList()
+                : List.of();
+        // Los tokens emitidos antes de existir el claim "tv" equivalen a la versión 0.
+        Integer tokenVersion = claims.get("tv", Integer.class);
+
+        return new VerifiedJwt(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                roles,
+                claims.getExpiration(),
+                tokenVersion != null ? tokenVersion : 0
+        );
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
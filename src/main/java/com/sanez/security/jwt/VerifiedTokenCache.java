@@ -0,0 +1,107 @@
+package com.sanez.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// Caché acotada (tamaño y TTL) de tokens ya verificados, indexada por el SHA-256 del token.
+// Un acierto evita repetir la verificación HMAC; ninguna entrada sobrevive a la expiración de su token.
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final Cache<String, VerifiedJwt> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.max-size:10000}") long maxSize,
+                              @Value("${jwt.verified-cache.ttl-seconds:300}") long ttlSeconds) {
+        // Con tamaño 0 la caché queda deshabilitada y cada petición verifica la firma.
+        if (maxSize <= 0) {
+            this.cache = null;
+            return;
+        }
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedJwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedJwt value, long currentTime) {
+                        return Math.min(ttlNanos, nanosHastaExpirar(value));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedJwt value, long currentTime,
+                                                  long currentDuration) {
+                        return Math.min(ttlNanos, nanosHastaExpirar(value));
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedJwt value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration; // Leer no prolonga la vida de la entrada.
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    // Devuelve el token verificado si está en caché y aún no ha expirado; null en caso contrario.
+    public VerifiedJwt get(String token) {
+        if (cache == null) {
+            return null;
+        }
+        String key = digest(token);
+        VerifiedJwt verified = cache.getIfPresent(key);
+        // Doble comprobación: nunca se sirve un token expirado aunque la entrada siga presente.
+        if (verified != null && nanosHastaExpirar(verified) <= 0) {
+            cache.invalidate(key);
+            return null;
+        }
+        return verified;
+    }
+
+    // Guarda un token cuya firma acaba de verificarse.
+    public void put(String token, VerifiedJwt verified) {
+        if (cache != null && verified.getExpiration() != null && nanosHastaExpirar(verified) > 0) {
+            cache.put(digest(token), verified);
+        }
+    }
+
+    // Contadores de aciertos, fallos y desalojos.
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    // Publica los contadores en Micrometer como cache.gets, cache.evictions, etc. con name=jwt.verified.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "jwt.verified");
+        }
+    }
+
+    private static long nanosHastaExpirar(VerifiedJwt verified) {
+        long millis = verified.getExpiration().getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+    }
+
+    // Se indexa por digest para no retener el token en claro ni depender de su longitud.
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.sanez.security.ratelimit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+
+// Filtro que limita los endpoints de autenticación costosos (BCrypt o envío de emails) por IP y por cuenta.
+// Se ejecuta antes de AuthTokenFilter y responde 429 sin tocar la base de datos ni calcular hashes.
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthRateLimitFilter.class);
+
+    // Endpoints limitados; el resto de /api/auth (verify, refresh, signout) no se ve afectado.
+    private static final Set<String> RUTAS_LIMITADAS = Set.of(
+            "/api/auth/signin",
+            "/api/auth/signup",
+            "/api/auth/forgot-password",
+            "/api/auth/resend-verification",
+            "/api/auth/reset-password"
+    );
+
+    // Un LoginRequest o UsuarioRequestDTO cabe de sobra; solo se inspecciona este prefijo del cuerpo.
+    private static final int MAX_BYTES_CUERPO = 4096;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final TokenBucketRateLimiter limitePorIp;
+    private final TokenBucketRateLimiter limitePorCuenta;
+
+    public AuthRateLimitFilter(@Value("${security.rate-limit.ip.capacity:30}") long ipCapacity,
+                               @Value("${security.rate-limit.ip.refill-seconds:60}") long ipRefillSeconds,
+                               @Value("${security.rate-limit.account.capacity:10}") long accountCapacity,
+                               @Value("${security.rate-limit.account.refill-seconds:900}") long accountRefillSeconds,
+                               @Value("${security.rate-limit.max-keys:100000}") long maxKeys,
+                               @Value("${security.rate-limit.idle-seconds:900}") long idleSeconds) {
+        Duration idle = Duration.ofSeconds(idleSeconds);
+        this.limitePorIp = new TokenBucketRateLimiter(ipCapacity, Duration.ofSeconds(ipRefillSeconds), maxKeys, idle);
+        this.limitePorCuenta = new TokenBucketRateLimiter(accountCapacity, Duration.ofSeconds(accountRefillSeconds),
+                maxKeys, idle);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod())
+                || !RUTAS_LIMITADAS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String path = request.getServletPath();
+
+        // Límite por IP (la IP la resuelve el contenedor; detrás de un proxy usar server.forward-headers-strategy).
+        long retryAfter = limitePorIp.tryConsume(path + "|" + request.getRemoteAddr());
+        if (retryAfter > 0) {
+            rechazar(request, response, retryAfter);
+            return;
+        }
+
+        // Límite por cuenta: el email llega como parámetro o en el cuerpo JSON.
+        // Un solo bucket por email para todos los endpoints: alternar entre signin, forgot-password, etc.
+        // no multiplica el presupuesto de intentos contra la misma cuenta.
+        HttpServletRequest peticion = request;
+        String email = request.getParameter("email");
+        if (email == null && esJson(request)) {
+            CachedBodyHttpServletRequest cacheada = new CachedBodyHttpServletRequest(request, MAX_BYTES_CUERPO);
+            email = extraerEmail(cacheada.getPrefijo());
+            peticion = cacheada;
+        }
+        if (email != null && !email.isBlank()) {
+            retryAfter = limitePorCuenta.tryConsume(email.trim().toLowerCase(Locale.ROOT));
+            if (retryAfter > 0) {
+                rechazar(request, response, retryAfter);
+                return;
+            }
+        }
+
+        filterChain.doFilter(peticion, response);
+    }
+
+    private static boolean esJson(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json");
+    }
+
+    // Busca el campo "email" de primer nivel sin deserializar el cuerpo completo; null si no aparece.
+    private static String extraerEmail(byte[] cuerpo) {
+        try (JsonParser parser = JSON_FACTORY.createParser(cuerpo)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                if ("email".equals(campo) && valor == JsonToken.VALUE_STRING) {
+                    return parser.getText();
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            // Cuerpo truncado o mal formado: el controlador devolverá el 400 correspondiente.
+        }
+        return null;
+    }
+
+    private static void rechazar(HttpServletRequest request, HttpServletResponse response, long retryAfter)
+            throws IOException {
+        logger.warn("Rate limit superado en {} desde {}", request.getServletPath(), request.getRemoteAddr());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\","
+                + "\"message\":\"Demasiados intentos. Por favor, intenta más tarde.\"}");
+    }
+}
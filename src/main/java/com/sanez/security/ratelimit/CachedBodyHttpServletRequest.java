@@ -0,0 +1,82 @@
+package com.sanez.security.ratelimit;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+// Envoltorio que permite leer el inicio del cuerpo en un filtro y volver a entregarlo completo al controlador.
+// Lo ya leído se sirve desde memoria y el resto sigue saliendo del stream original.
+class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] prefijo;
+
+    CachedBodyHttpServletRequest(HttpServletRequest request, int maxBytes) throws IOException {
+        super(request);
+        this.prefijo = request.getInputStream().readNBytes(maxBytes);
+    }
+
+    byte[] getPrefijo() {
+        return prefijo;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        InputStream completo = new SequenceInputStream(new ByteArrayInputStream(prefijo), super.getInputStream());
+        return new ServletInputStream() {
+            private boolean terminado;
+
+            @Override
+            public int read() throws IOException {
+                int b = completo.read();
+                terminado = b < 0;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = completo.read(b, off, len);
+                terminado = n < 0;
+                return n;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return terminado;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            // isReady() siempre es true, así que el listener puede leer el cuerpo completo en cuanto se registra.
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                try {
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                } catch (IOException e) {
+                    readListener.onError(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        Charset charset = getCharacterEncoding() != null
+                ? Charset.forName(getCharacterEncoding())
+                : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+}
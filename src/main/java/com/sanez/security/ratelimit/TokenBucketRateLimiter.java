@@ -0,0 +1,70 @@
+package com.sanez.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Limitador en memoria basado en token buckets, uno por clave (IP o email).
+// La tabla de claves está acotada y descarta las inactivas; cada bucket se protege con uno de N locks
+// (lock striping), así que la comprobación es O(1) y no hay un lock global entre claves distintas.
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final long capacity;
+    private final double tokensPorNano;
+    private final Cache<String, Bucket> buckets;
+    private final Object[] locks = new Object[STRIPES];
+
+    // capacity: ráfaga máxima; refillPeriod: tiempo en el que un bucket vacío vuelve a estar lleno.
+    public TokenBucketRateLimiter(long capacity, Duration refillPeriod, long maxKeys, Duration idleTimeout) {
+        this.capacity = capacity;
+        this.tokensPorNano = (double) capacity / refillPeriod.toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // Consume un token de la clave. Devuelve 0 si la petición está permitida o,
+    // si no, los segundos que faltan para el siguiente token (valor para Retry-After).
+    public long tryConsume(String key) {
+        Bucket bucket = buckets.get(key, k -> new Bucket(capacity, System.nanoTime()));
+        synchronized (locks[stripe(key)]) {
+            // El reloj se lee dentro del lock: leído antes, un hilo que llega tarde al lock calcularía un tiempo
+            // negativo y haría retroceder ultimaRecarga. Los max garantizan que el tiempo nunca retrocede.
+            long ahora = System.nanoTime();
+            long transcurrido = Math.max(0, ahora - bucket.ultimaRecarga);
+            double disponibles = Math.min(capacity, bucket.tokens + transcurrido * tokensPorNano);
+            bucket.ultimaRecarga = Math.max(ahora, bucket.ultimaRecarga);
+            if (disponibles >= 1) {
+                bucket.tokens = disponibles - 1;
+                return 0;
+            }
+            bucket.tokens = disponibles;
+            long nanosHastaToken = (long) Math.ceil((1 - disponibles) / tokensPorNano);
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanosHastaToken) + 1);
+        }
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    // Estado mutable del bucket; solo se modifica bajo el lock de su franja.
+    private static final class Bucket {
+        private double tokens;
+        private long ultimaRecarga;
+
+        private Bucket(double tokens, long ultimaRecarga) {
+            this.tokens = tokens;
+            this.ultimaRecarga = ultimaRecarga;
+        }
+    }
+}
@@ -15,13 +15,20 @@ public class CustomUserDetails implements UserDetails {
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private int tokenVersion;
 
     public CustomUserDetails(Long id, String email, String password,
                              Collection<? extends GrantedAuthority> authorities) {
+        this(id, email, password, authorities, 0);
+    }
+
+    public CustomUserDetails(Long id, String email, String password,
+                             Collection<? extends GrantedAuthority> authorities, int tokenVersion) {
         this.id = id;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.tokenVersion = tokenVersion;
     }
 
 
@@ -0,0 +1,32 @@
+package com.sanez.security.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Instancias compartidas de SimpleGrantedAuthority y de sus combinaciones.
+// Solo existen unos pocos roles, así que cada petición reutiliza la misma lista inmutable en lugar de crearla.
+public final class GrantedAuthorities {
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTORIDADES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<List<String>, List<GrantedAuthority>> COMBINACIONES = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    // Devuelve la instancia compartida para el nombre de autoridad (ej. "ROLE_USER").
+    public static GrantedAuthority of(String nombre) {
+        return AUTORIDADES.computeIfAbsent(nombre, SimpleGrantedAuthority::new);
+    }
+
+    // Devuelve la lista compartida e inmutable para un conjunto de nombres, sin importar orden ni duplicados.
+    public static List<GrantedAuthority> of(Collection<String> nombres) {
+        List<String> clave = nombres.stream().distinct().sorted().toList();
+        return COMBINACIONES.computeIfAbsent(clave,
+                k -> k.stream().map(GrantedAuthorities::of).toList());
+    }
+}
@@ -0,0 +1,71 @@
+package com.sanez.security.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom concurrente para identificadores de JWT revocados.
+// Un negativo es definitivo (el token no está revocado); un positivo debe confirmarse contra la base de datos.
+// Las consultas no reservan memoria: los hashes se calculan directamente sobre los caracteres del jti.
+final class JtiBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+
+    JtiBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.numBits = Math.max(64, ((m + 63) / 64) * 64);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * ln2));
+        this.bits = new AtomicLongArray((int) (numBits / 64));
+    }
+
+    void put(String jti) {
+        long h1 = fnv1a(jti);
+        long h2 = mix(h1) | 1; // Impar para recorrer todas las posiciones con doble hashing
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long actual;
+            do {
+                actual = bits.get(index);
+                if ((actual & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(index, actual, actual | mask));
+        }
+    }
+
+    boolean mightContain(String jti) {
+        long h1 = fnv1a(jti);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres, sin convertir a bytes.
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizador de MurmurHash3 para derivar un segundo hash independiente.
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,116 @@
+package com.sanez.security.service;
+
+import com.sanez.exception.AccesoNoAutorizadoException;
+import com.sanez.model.TokenRefresco;
+import com.sanez.model.Usuario;
+import com.sanez.repository.TokenRefrescoRepository;
+import com.sanez.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+// Tokens de refresco opacos de un solo uso con rotación.
+// Cada canje invalida el token presentado y emite uno nuevo de la misma familia; presentar un token ya usado
+// se considera robo y revoca la familia completa.
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final TokenRefrescoRepository tokenRefrescoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final long refreshExpirationMs;
+
+    public RefreshTokenService(TokenRefrescoRepository tokenRefrescoRepository,
+                               UsuarioRepository usuarioRepository,
+                               @Value("${jwt.refreshExpiration}") long refreshExpirationMs) {
+        this.tokenRefrescoRepository = tokenRefrescoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    // Resultado de un canje: el usuario dueño y el nuevo token de refresco a entregar al cliente.
+    public record Rotacion(String email, String refreshToken) {
+    }
+
+    // Emite el primer token de refresco de una nueva familia (tras un login con contraseña).
+    @Transactional
+    public String emitir(Long usuarioId) {
+        return guardarNuevo(usuarioRepository.getReferenceById(usuarioId), UUID.randomUUID().toString());
+    }
+
+    // Canjea un token de refresco por otro nuevo. Lanza 401 si es inválido, expiró o ya fue usado.
+    @Transactional(noRollbackFor = AccesoNoAutorizadoException.class)
+    public Rotacion rotar(String refreshToken) {
+        TokenRefresco actual = tokenRefrescoRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new AccesoNoAutorizadoException("Token de refresco inválido"));
+
+        // Primero la expiración: un token expirado no se marca como usado, así que presentarlo de nuevo
+        // (p. ej. un cliente que reintenta) no se confunde con una reutilización ni revoca la familia.
+        if (actual.getExpiracion().isBefore(Instant.now())) {
+            throw new AccesoNoAutorizadoException("El token de refresco ha expirado");
+        }
+
+        if (actual.isUsado() || tokenRefrescoRepository.marcarUsado(actual.getId()) == 0) {
+            // Reutilización: alguien más tiene una copia del token. Se revoca toda la familia.
+            logger.warn("Reutilización de token de refresco detectada para usuario {}", actual.getUsuario().getId());
+            tokenRefrescoRepository.deleteByFamilia(actual.getFamilia());
+            throw new AccesoNoAutorizadoException("Token de refresco inválido");
+        }
+
+        Usuario usuario = actual.getUsuario();
+        String nuevo = guardarNuevo(usuario, actual.getFamilia());
+        return new Rotacion(usuario.getEmail(), nuevo);
+    }
+
+    // Revoca todos los tokens de refresco del usuario (cambio o reseteo de contraseña, cierre de sesión).
+    @Transactional
+    public void revocarTodos(Long usuarioId) {
+        tokenRefrescoRepository.deleteByUsuarioId(usuarioId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgarExpirados() {
+        int eliminados = tokenRefrescoRepository.deleteExpirados(Instant.now());
+        if (eliminados > 0) {
+            logger.info("Purgados {} tokens de refresco expirados", eliminados);
+        }
+    }
+
+    private String guardarNuevo(Usuario usuario, String familia) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        TokenRefresco tokenRefresco = new TokenRefresco();
+        tokenRefresco.setTokenHash(hash(token));
+        tokenRefresco.setFamilia(familia);
+        tokenRefresco.setExpiracion(Instant.now().plusMillis(refreshExpirationMs));
+        tokenRefresco.setUsuario(usuario);
+        tokenRefrescoRepository.save(tokenRefresco);
+
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
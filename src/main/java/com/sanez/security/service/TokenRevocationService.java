@@ -0,0 +1,93 @@
+package com.sanez.security.service;
+
+import com.sanez.model.TokenRevocado;
+import com.sanez.repository.TokenRevocadoRepository;
+import com.sanez.security.jwt.VerifiedJwt;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+// Lista de JWT revocados (por jti) con un filtro de Bloom en memoria como vía rápida.
+// Solo los positivos del filtro consultan la tabla tokens_revocados, de modo que el caso común no toca la BD.
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    // Margen para no perder revocaciones confirmadas justo durante una sincronización.
+    private static final long MARGEN_SINCRONIZACION_SEGUNDOS = 5;
+
+    private final TokenRevocadoRepository tokenRevocadoRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile JtiBloomFilter filtro;
+    private volatile Instant ultimaSincronizacion;
+
+    public TokenRevocationService(TokenRevocadoRepository tokenRevocadoRepository,
+                                  @Value("${jwt.revocation.expected-insertions:100000}") long expectedInsertions,
+                                  @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.tokenRevocadoRepository = tokenRevocadoRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @PostConstruct
+    void inicializar() {
+        reconstruirFiltro();
+    }
+
+    // Indica si el token fue revocado. Sin consulta a la BD salvo que el filtro de Bloom dé positivo.
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filtro.mightContain(jti)) {
+            return false;
+        }
+        return tokenRevocadoRepository.existsById(jti);
+    }
+
+    // Revoca un token hasta su expiración original.
+    public void revoke(VerifiedJwt verified) {
+        if (verified.getJti() == null || verified.getExpiration() == null) {
+            return;
+        }
+        tokenRevocadoRepository.save(new TokenRevocado(
+                verified.getJti(), verified.getExpiration().toInstant(), Instant.now()));
+        filtro.put(verified.getJti());
+    }
+
+    // Incorpora al filtro las revocaciones hechas por otros nodos.
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:10000}")
+    public void sincronizar() {
+        Instant inicio = Instant.now();
+        List<String> nuevos = tokenRevocadoRepository.findJtiRevocadosDesde(
+                ultimaSincronizacion.minusSeconds(MARGEN_SINCRONIZACION_SEGUNDOS));
+        JtiBloomFilter actual = filtro;
+        nuevos.forEach(actual::put);
+        ultimaSincronizacion = inicio;
+    }
+
+    // Elimina las entradas cuyo token ya expiró y reconstruye el filtro sin ellas.
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:3600000}")
+    public void purgarExpirados() {
+        int eliminados = tokenRevocadoRepository.deleteExpirados(Instant.now());
+        if (eliminados > 0) {
+            logger.info("Purgados {} tokens revocados ya expirados", eliminados);
+            reconstruirFiltro();
+        }
+    }
+
+    private void reconstruirFiltro() {
+        Instant inicio = Instant.now();
+        JtiBloomFilter nuevo = new JtiBloomFilter(expectedInsertions, falsePositiveRate);
+        tokenRevocadoRepository.findJtiVigentes(inicio).forEach(nuevo::put);
+        filtro = nuevo;
+        ultimaSincronizacion = inicio;
+        // Recupera revocaciones confirmadas mientras se cargaba el filtro nuevo.
+        sincronizar();
+    }
+}
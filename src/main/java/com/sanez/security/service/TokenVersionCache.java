@@ -0,0 +1,39 @@
+package com.sanez.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sanez.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Caché pequeña de la versión de credenciales (claim "tv") de cada usuario.
+// Permite rechazar tokens emitidos antes de un cambio de contraseña sin consultar la base de datos en cada petición.
+@Component
+public class TokenVersionCache {
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<Long, Integer> versiones;
+
+    public TokenVersionCache(UsuarioRepository usuarioRepository,
+                             @Value("${jwt.token-version-cache.max-size:10000}") long maxSize,
+                             @Value("${jwt.token-version-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.usuarioRepository = usuarioRepository;
+        // El TTL acota cuánto tarda otro nodo en enterarse de un cambio de contraseña.
+        this.versiones = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    // Devuelve la versión vigente del usuario o null si el usuario ya no existe (no se cachea).
+    public Integer getCurrentVersion(Long userId) {
+        return versiones.get(userId, id -> usuarioRepository.findTokenVersionById(id).orElse(null));
+    }
+
+    // Descarta la versión cacheada tras un cambio de credenciales o la eliminación del usuario.
+    public void invalidate(Long userId) {
+        versiones.invalidate(userId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.sanez.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Caché acotada (tamaño y TTL) de CustomUserDetails indexada por email.
+// Los servicios que cambian la contraseña, la verificación o eliminan al usuario la invalidan explícitamente;
+// el TTL solo acota lo que tarda en enterarse otro nodo.
+@Component
+public class UserDetailsCache implements MeterBinder {
+
+    private final Cache<String, CustomUserDetails> cache;
+
+    public UserDetailsCache(@Value("${security.user-details-cache.max-size:10000}") long maxSize,
+                            @Value("${security.user-details-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    // Devuelve el usuario cacheado o lo carga; si la carga lanza una excepción no se cachea nada.
+    public CustomUserDetails get(String email, Function<String, CustomUserDetails> loader) {
+        return cache.get(email, loader);
+    }
+
+    // Sustituye la entrada (ej. tras re-hashear la contraseña al coste vigente).
+    public void put(String email, CustomUserDetails userDetails) {
+        cache.put(email, userDetails);
+    }
+
+    // Descarta la entrada del usuario tras modificar sus credenciales o su estado.
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    // Publica los contadores en Micrometer con name=user.details.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "user.details");
+    }
+}
@@ -5,27 +5,32 @@ import com.sanez.model.Usuario;
 import com.sanez.repository.UsuarioRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UsuarioRepository usuarioRepository;
+    private final UserDetailsCache userDetailsCache;
     private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
-    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository) {
+    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository, UserDetailsCache userDetailsCache) {
         this.usuarioRepository = usuarioRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws AccesoNoAutorizadoException {
+        // Solo se cachean usuarios válidos; las cuentas inexistentes o sin verificar se consultan siempre.
+        return userDetailsCache.get(email, this::cargarDesdeBaseDeDatos);
+    }
+
+    private CustomUserDetails cargarDesdeBaseDeDatos(String email) {
 
         //Buscamos usuario en DB
         Usuario usuario = usuarioRepository.findByEmail(email)
@@ -40,16 +45,37 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new AccesoNoAutorizadoException("Cuenta no verificada. Por favor, verifica tu correo electrónico.");
         }
 
-        // Convertir roles a grantedAuthority
-        Set<GrantedAuthority> authorities = usuario.getRoles().stream()
-                .map(rol -> new SimpleGrantedAuthority("ROLE_" + rol.getNombre()))
-                .collect(Collectors.toSet());
+        // Convertir roles a grantedAuthority (instancias compartidas)
+        List<String> roles = usuario.getRoles().stream()
+                .map(rol -> "ROLE_" + rol.getNombre())
+                .toList();
 
         return new CustomUserDetails(
                 usuario.getId(),
                 usuario.getEmail(),
                 usuario.getPassword(),
-                authorities
+                GrantedAuthorities.of(roles),
+                usuario.getTokenVersion()
+        );
+    }
+
+    // Guarda el hash recalculado con el coste BCrypt vigente tras un login correcto.
+    // La contraseña no cambia, así que los tokens emitidos siguen siendo válidos.
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!(user instanceof CustomUserDetails customUser)) {
+            return user;
+        }
+        usuarioRepository.actualizarPassword(customUser.getId(), newPassword);
+        logger.info("Hash de contraseña actualizado al coste vigente para: {}", customUser.getEmail());
+        CustomUserDetails actualizado = new CustomUserDetails(
+                customUser.getId(),
+                customUser.getEmail(),
+                newPassword,
+                customUser.getAuthorities(),
+                customUser.getTokenVersion()
         );
+        userDetailsCache.put(actualizado.getEmail(), actualizado);
+        return actualizado;
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.sanez.service;
+
+import com.sanez.dto.nota.NotaBusquedaDTO;
+
+import java.util.List;
+
+// Motor de búsqueda de texto sobre las notas de un usuario.
+// La implementación se elige con notas.search.motor; NotaServiceImpl le notifica cada escritura
+// con el número de cambio del usuario en que se hizo.
+public interface BuscadorNotas {
+    List<NotaBusquedaDTO> buscar(Long usuarioId, String consulta, int desplazamiento, int limite);
+    void notaGuardada(Long usuarioId, long cambio, Long notaId, String titulo, String contenido);
+    void notaEliminada(Long usuarioId, long cambio, Long notaId);
+    // Escrituras masivas (importación, lotes): el motor puede descartar lo que tenga del usuario.
+    void notasModificadas(Long usuarioId);
+}
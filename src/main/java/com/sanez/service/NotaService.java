@@ -1,14 +1,33 @@
 package com.sanez.service;
 
+import com.sanez.dto.nota.NotaBatchRequestDTO;
+import com.sanez.dto.nota.NotaBusquedaDTO;
+import com.sanez.dto.nota.NotaCambiosDTO;
+import com.sanez.dto.nota.NotaImportResultadoDTO;
+import com.sanez.dto.nota.NotaOperacionResultadoDTO;
+import com.sanez.dto.nota.NotaPaginaDTO;
 import com.sanez.dto.nota.NotaRequestDTO;
 import com.sanez.dto.nota.NotaResponseDTO;
+import com.sanez.dto.nota.NotaSugerenciaDTO;
 import com.sanez.dto.nota.NotaUpdateDTO;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface NotaService {
     NotaResponseDTO crearNota(NotaRequestDTO notaRequestDTO);
-    List<NotaResponseDTO> obtenerNotasPorUsuario();
-    NotaResponseDTO editarNota(Long notaId, NotaUpdateDTO notaUpdateDTO);
+    NotaPaginaDTO obtenerNotasPorUsuario(Long after, int limit, long versionMinima);
+    long obtenerVersionNotas();
+    String obtenerEtagNotas(long version);
+    NotaResponseDTO obtenerNota(Long notaId);
+    List<NotaBusquedaDTO> buscarNotas(String consulta, int offset, int limit);
+    List<NotaSugerenciaDTO> sugerirTitulos(String prefijo, int limit);
+    void exportarNotas(OutputStream salida) throws IOException;
+    NotaImportResultadoDTO importarNotas(InputStream entrada) throws IOException;
+    List<NotaOperacionResultadoDTO> procesarLote(NotaBatchRequestDTO request);
+    NotaCambiosDTO obtenerCambios(Long since, int limit);
+    NotaResponseDTO editarNota(Long notaId, NotaUpdateDTO notaUpdateDTO, Long versionEsperada);
     void eliminarNota(Long notaId);
 }
\ No newline at end of file
@@ -4,10 +4,15 @@ import com.sanez.dto.perfil.CambiarPasswordRequest;
 import com.sanez.dto.perfil.PerfilRequestDTO;
 import com.sanez.dto.perfil.PerfilResponseDTO;
 
+import java.util.List;
+
 public interface PerfilService {
     PerfilResponseDTO obtenerMiPerfil();
+    String obtenerEtagPerfil();
     PerfilResponseDTO actualizarMiPerfil(PerfilRequestDTO perfilRequestDTO);
     void agregarNotaFavorita(Long notaId);
     void removerNotaFavorita(Long notaId);
+    void agregarNotasFavoritas(List<Long> notaIds);
+    void removerNotasFavoritas(List<Long> notaIds);
     void cambiarPassword(CambiarPasswordRequest request);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.sanez.service;
+
+import com.sanez.dto.nota.NotaSugerenciaDTO;
+
+import java.util.List;
+
+// Autocompletado de títulos de notas; NotaServiceImpl le notifica cada escritura con su número de cambio.
+public interface SugeridorTitulos {
+    List<NotaSugerenciaDTO> sugerir(Long usuarioId, String prefijo, int limite);
+    void notaGuardada(Long usuarioId, long cambio, Long notaId, String titulo);
+    void notaEliminada(Long usuarioId, long cambio, Long notaId);
+    void notasModificadas(Long usuarioId);
+}
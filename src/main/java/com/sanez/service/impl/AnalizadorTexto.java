@@ -0,0 +1,53 @@
+package com.sanez.service.impl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Normalización y tokenización de texto en español para la búsqueda de notas.
+// Se quitan tildes y diéresis (NFD + eliminación de marcas) y se pasa a minúsculas, de modo que
+// "Canción", "cancion" y "CANCIÓN" producen el mismo término. La ñ se reduce a n por la misma regla.
+final class AnalizadorTexto {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    // Palabras vacías frecuentes: no aportan relevancia y alargarían mucho sus postings.
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "mas", "o", "para",
+            "pero", "por", "que", "se", "sin", "su", "sus", "un", "una", "unas", "unos", "y");
+
+    private AnalizadorTexto() {
+    }
+
+    // Texto sin tildes y en minúsculas.
+    static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return MARCAS_DIACRITICAS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // Términos del texto en orden de aparición (con repeticiones), sin palabras vacías.
+    static List<String> tokenizar(String texto) {
+        String normalizado = normalizar(texto);
+        List<String> terminos = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean letra = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                String termino = normalizado.substring(inicio, i);
+                if (!PALABRAS_VACIAS.contains(termino)) {
+                    terminos.add(termino);
+                }
+                inicio = -1;
+            }
+        }
+        return terminos;
+    }
+}
@@ -11,6 +11,9 @@ import com.sanez.model.Rol;
 import com.sanez.model.Usuario;
 import com.sanez.repository.RoleRepository;
 import com.sanez.repository.UsuarioRepository;
+import com.sanez.security.service.RefreshTokenService;
+import com.sanez.security.service.TokenVersionCache;
+import com.sanez.security.service.UserDetailsCache;
 import com.sanez.service.AuthService;
 import com.sanez.service.EmailService;
 import jakarta.transaction.Transactional;
@@ -29,15 +32,24 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
     private final EmailService emailService;
+    private final TokenVersionCache tokenVersionCache;
+    private final RefreshTokenService refreshTokenService;
+    private final UserDetailsCache userDetailsCache;
 
     public AuthServiceImpl(UsuarioRepository usuarioRepository,
                            PasswordEncoder passwordEncoder,
                            RoleRepository roleRepository,
-                           EmailService emailService) {
+                           EmailService emailService,
+                           TokenVersionCache tokenVersionCache,
+                           RefreshTokenService refreshTokenService,
+                           UserDetailsCache userDetailsCache) {
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
         this.roleRepository = roleRepository;
         this.emailService = emailService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.refreshTokenService = refreshTokenService;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -93,6 +105,8 @@ public class AuthServiceImpl implements AuthService {
         usuario.setTokenExpiration(null);
 
         usuarioRepository.save(usuario);
+        String email = usuario.getEmail();
+        TrasCommit.ejecutar(() -> userDetailsCache.invalidate(email));
     }
 
     @Override
@@ -159,7 +173,18 @@ public class AuthServiceImpl implements AuthService {
         usuario.setPasswordResetToken(null);
         usuario.setPasswordResetTokenExpiration(null);
 
+        // Invalida los JWT emitidos con la contraseña anterior
+        usuario.setTokenVersion(usuario.getTokenVersion() + 1);
+
         usuarioRepository.save(usuario);
+        // Tras el commit: invalidar antes permitiría que una petición concurrente volviera a cachear el estado antiguo.
+        Long usuarioId = usuario.getId();
+        String email = usuario.getEmail();
+        TrasCommit.ejecutar(() -> {
+            tokenVersionCache.invalidate(usuarioId);
+            userDetailsCache.invalidate(email);
+        });
+        refreshTokenService.revocarTodos(usuario.getId());
     }
 
 
@@ -0,0 +1,137 @@
+package com.sanez.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sanez.dto.nota.NotaBusquedaDTO;
+import com.sanez.dto.nota.NotaSummary;
+import com.sanez.repository.NotaRepository;
+import com.sanez.repository.UsuarioRepository;
+import com.sanez.service.BuscadorNotas;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Búsqueda con un índice invertido por usuario en memoria (BM25), sin escanear la columna contenido.
+ * El índice de cada usuario se construye desde la base de datos en su primera búsqueda y después se
+ * mantiene con las escrituras confirmadas. Los índices de usuarios inactivos se descartan (Caffeine).
+ * Cada índice recuerda el número de cambio del usuario que refleja (ver EntradaVersionada); cada búsqueda
+ * lo compara con el contador de la base de datos y lo reconstruye si va por detrás, de modo que las escrituras
+ * hechas en otro nodo también se ven.
+ */
+@Service
+@ConditionalOnProperty(name = "notas.search.motor", havingValue = "memoria", matchIfMissing = true)
+public class BuscadorNotasEnMemoria implements BuscadorNotas, MeterBinder {
+
+    private final NotaRepository notaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<Long, EntradaVersionada<IndiceInvertido>> indices;
+
+    public BuscadorNotasEnMemoria(NotaRepository notaRepository,
+                                  UsuarioRepository usuarioRepository,
+                                  @Value("${notas.search.max-usuarios:1000}") long maxUsuarios,
+                                  @Value("${notas.search.expira-minutos:30}") long expiraMinutos) {
+        this.notaRepository = notaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.indices = Caffeine.newBuilder()
+                .maximumSize(maxUsuarios)
+                .expireAfterAccess(Duration.ofMinutes(expiraMinutos))
+                .recordStats()
+                .build();
+    }
+
+    // Busca en el índice del usuario (construyéndolo si hace falta) y completa los resúmenes con una consulta IN.
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotaBusquedaDTO> buscar(Long usuarioId, String consulta, int desplazamiento, int limite) {
+        List<String> terminos = AnalizadorTexto.tokenizar(consulta);
+        if (terminos.isEmpty()) {
+            return List.of();
+        }
+
+        // Se calcula el top (desplazamiento + limite) y se descarta el principio.
+        LinkedHashMap<Long, Double> ranking = new LinkedHashMap<>();
+        indice(usuarioId).buscar(terminos, desplazamiento + limite).entrySet().stream()
+                .skip(desplazamiento)
+                .forEach(entrada -> ranking.put(entrada.getKey(), entrada.getValue()));
+        if (ranking.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, NotaSummary> resumenes = notaRepository.findResumenes(usuarioId, ranking.keySet()).stream()
+                .collect(Collectors.toMap(NotaSummary::getId, Function.identity()));
+        List<NotaBusquedaDTO> resultado = new ArrayList<>(ranking.size());
+        ranking.forEach((notaId, puntuacion) -> {
+            NotaSummary resumen = resumenes.get(notaId);
+            if (resumen != null) {
+                resultado.add(new NotaBusquedaDTO(notaId, resumen.getTitulo(), resumen.getPreview(), puntuacion));
+            }
+        });
+        return resultado;
+    }
+
+    // Las actualizaciones se aplican tras el commit, en orden de cambio y solo si el índice del usuario ya está
+    // en memoria; si se está construyendo, computeIfPresent espera a que termine y aplica el cambio encima.
+    @Override
+    public void notaGuardada(Long usuarioId, long cambio, Long notaId, String titulo, String contenido) {
+        TrasCommit.ejecutar(() -> indices.asMap().computeIfPresent(usuarioId, (id, entrada) ->
+                entrada.aplicar(cambio, indice -> {
+                    indice.agregar(notaId, titulo, contenido);
+                    return indice;
+                })));
+    }
+
+    @Override
+    public void notaEliminada(Long usuarioId, long cambio, Long notaId) {
+        TrasCommit.ejecutar(() -> indices.asMap().computeIfPresent(usuarioId, (id, entrada) ->
+                entrada.aplicar(cambio, indice -> {
+                    indice.eliminar(notaId);
+                    return indice;
+                })));
+    }
+
+    @Override
+    public void notasModificadas(Long usuarioId) {
+        TrasCommit.ejecutar(() -> indices.invalidate(usuarioId));
+    }
+
+    // Publica los contadores en Micrometer con name=notas.search.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, indices, "notas.search");
+    }
+
+    // Índice que incluye al menos el cambio actual del usuario; si el cacheado va por detrás (escrituras de otro
+    // nodo o avisos descartados) se reconstruye una sola vez aunque busquen varios hilos a la vez.
+    private IndiceInvertido indice(Long usuarioId) {
+        long cambio = usuarioRepository.findVersionNotasById(usuarioId).orElse(0L);
+        EntradaVersionada<IndiceInvertido> entrada = indices.get(usuarioId, id -> construirIndice(id, cambio));
+        if (entrada.cambio() < cambio) {
+            entrada = indices.asMap().compute(usuarioId, (id, actual) ->
+                    actual != null && actual.cambio() >= cambio ? actual : construirIndice(id, cambio));
+        }
+        return entrada.valor();
+    }
+
+    // El cambio se leyó antes que las notas, así que el índice incluye como mínimo todos los cambios hasta él.
+    private EntradaVersionada<IndiceInvertido> construirIndice(Long usuarioId, long cambio) {
+        IndiceInvertido indice = new IndiceInvertido();
+        try (Stream<NotaRepository.NotaTexto> notas = notaRepository.streamTextosByUsuarioId(usuarioId)) {
+            notas.forEach(nota -> indice.agregar(nota.getId(), nota.getTitulo(), nota.getContenido()));
+        }
+        return new EntradaVersionada<>(cambio, indice);
+    }
+}
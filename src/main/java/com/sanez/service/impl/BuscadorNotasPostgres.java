@@ -0,0 +1,47 @@
+package com.sanez.service.impl;
+
+import com.sanez.dto.nota.NotaBusquedaDTO;
+import com.sanez.repository.NotaJdbcRepository;
+import com.sanez.service.BuscadorNotas;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Búsqueda delegada en PostgreSQL: columna tsvector generada sobre título y contenido, con índice GIN
+ * (la crea BusquedaPostgresInitializer). No consume memoria del nodo y el índice lo mantiene la propia
+ * base de datos en cada escritura, así que los avisos de escritura no hacen nada.
+ */
+@Service
+@ConditionalOnProperty(name = "notas.search.motor", havingValue = "postgres")
+public class BuscadorNotasPostgres implements BuscadorNotas {
+
+    private final NotaJdbcRepository notaJdbcRepository;
+
+    public BuscadorNotasPostgres(NotaJdbcRepository notaJdbcRepository) {
+        this.notaJdbcRepository = notaJdbcRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotaBusquedaDTO> buscar(Long usuarioId, String consulta, int desplazamiento, int limite) {
+        return notaJdbcRepository.buscarTextoCompleto(usuarioId, consulta, desplazamiento, limite);
+    }
+
+    @Override
+    public void notaGuardada(Long usuarioId, long cambio, Long notaId, String titulo, String contenido) {
+        // La columna generada se recalcula en el UPDATE/INSERT.
+    }
+
+    @Override
+    public void notaEliminada(Long usuarioId, long cambio, Long notaId) {
+        // Nada que hacer: la fila y su entrada del índice GIN desaparecen con el DELETE.
+    }
+
+    @Override
+    public void notasModificadas(Long usuarioId) {
+        // Nada que hacer: las escrituras JDBC también recalculan la columna generada.
+    }
+}
@@ -0,0 +1,23 @@
+package com.sanez.service.impl;
+
+import java.util.function.UnaryOperator;
+
+// Datos en memoria de un usuario junto con el número de cambio (usuarios.version_notas) que reflejan.
+// Quien carga la entrada lee el contador antes que las notas: cada cambio bloquea la fila del usuario hasta su
+// commit, así que si el contador vale N todos los cambios <= N ya están confirmados y la carga los incluye.
+// Los avisos de escritura llegan tras el commit y sin orden garantizado entre hilos: uno ya incluido se ignora,
+// el siguiente se aplica y, si falta uno intermedio (aún sin aplicar o hecho en otro nodo), la entrada se descarta.
+record EntradaVersionada<T>(long cambio, T valor) {
+
+    // Pensado para computeIfPresent: devuelve la entrada con el cambio aplicado, la misma si ya lo incluía
+    // o null (que elimina la entrada) si hay un hueco.
+    EntradaVersionada<T> aplicar(long nuevoCambio, UnaryOperator<T> actualizacion) {
+        if (nuevoCambio <= cambio) {
+            return this;
+        }
+        if (nuevoCambio > cambio + 1) {
+            return null;
+        }
+        return new EntradaVersionada<>(nuevoCambio, actualizacion.apply(valor));
+    }
+}
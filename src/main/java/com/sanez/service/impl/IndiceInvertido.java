@@ -0,0 +1,218 @@
+package com.sanez.service.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido en memoria de las notas de un usuario, con ranking BM25.
+// Cada nota ocupa un hueco (int); los postings de cada término son arrays paralelos de huecos y frecuencias,
+// y el hueco se traduce al id de la nota con un long[]. Las notas editadas o eliminadas dejan su hueco muerto
+// y el índice se compacta cuando los huecos muertos superan a los vivos.
+final class IndiceInvertido {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Los términos del título cuentan doble en la frecuencia.
+    private static final int PESO_TITULO = 2;
+    private static final long HUECO_MUERTO = -1L;
+
+    // Postings de un término; "vivos" es la frecuencia de documento (df) sin contar huecos muertos.
+    private static final class Postings {
+        int[] huecos = new int[4];
+        int[] frecuencias = new int[4];
+        int tamanio;
+        int vivos;
+
+        void agregar(int hueco, int frecuencia) {
+            if (tamanio == huecos.length) {
+                huecos = Arrays.copyOf(huecos, tamanio * 2);
+                frecuencias = Arrays.copyOf(frecuencias, tamanio * 2);
+            }
+            huecos[tamanio] = hueco;
+            frecuencias[tamanio] = frecuencia;
+            tamanio++;
+            vivos++;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> huecoPorNota = new HashMap<>();
+
+    private long[] notaIds = new long[16];
+    private int[] longitudes = new int[16];
+    private String[][] terminosPorHueco = new String[16][];
+    private int huecos;
+    private int vivos;
+    private long longitudTotal;
+
+    // Indexa la nota; si ya estaba indexada sustituye su versión anterior.
+    void agregar(long notaId, String titulo, String contenido) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinBloqueo(notaId);
+
+            Map<String, Integer> frecuencias = new LinkedHashMap<>();
+            for (String termino : AnalizadorTexto.tokenizar(titulo)) {
+                frecuencias.merge(termino, PESO_TITULO, Integer::sum);
+            }
+            for (String termino : AnalizadorTexto.tokenizar(contenido)) {
+                frecuencias.merge(termino, 1, Integer::sum);
+            }
+
+            int hueco = reservarHueco();
+            int longitud = 0;
+            for (Map.Entry<String, Integer> entrada : frecuencias.entrySet()) {
+                postings.computeIfAbsent(entrada.getKey(), t -> new Postings()).agregar(hueco, entrada.getValue());
+                longitud += entrada.getValue();
+            }
+            notaIds[hueco] = notaId;
+            longitudes[hueco] = longitud;
+            terminosPorHueco[hueco] = frecuencias.keySet().toArray(new String[0]);
+            huecoPorNota.put(notaId, hueco);
+            vivos++;
+            longitudTotal += longitud;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Quita la nota del índice si estaba indexada.
+    void eliminar(long notaId) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinBloqueo(notaId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Las notas que contienen algún término de la consulta, de mayor a menor puntuación BM25 (id -> puntuación).
+    LinkedHashMap<Long, Double> buscar(List<String> terminosConsulta, int limite) {
+        lock.readLock().lock();
+        try {
+            LinkedHashMap<Long, Double> resultado = new LinkedHashMap<>();
+            if (vivos == 0 || terminosConsulta.isEmpty()) {
+                return resultado;
+            }
+            double longitudMedia = (double) longitudTotal / vivos;
+            double[] puntuaciones = new double[huecos];
+
+            for (String termino : terminosConsulta.stream().distinct().toList()) {
+                Postings lista = postings.get(termino);
+                if (lista == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (vivos - lista.vivos + 0.5) / (lista.vivos + 0.5));
+                for (int i = 0; i < lista.tamanio; i++) {
+                    int hueco = lista.huecos[i];
+                    if (notaIds[hueco] == HUECO_MUERTO) {
+                        continue;
+                    }
+                    int tf = lista.frecuencias[i];
+                    double normalizacion = K1 * (1 - B + B * longitudes[hueco] / longitudMedia);
+                    puntuaciones[hueco] += idf * tf * (K1 + 1) / (tf + normalizacion);
+                }
+            }
+
+            // Top-k con un montículo de mínimos: O(n log k) en lugar de ordenar todas las coincidencias.
+            PriorityQueue<Integer> mejores = new PriorityQueue<>(limite + 1,
+                    (a, b) -> Double.compare(puntuaciones[a], puntuaciones[b]));
+            for (int hueco = 0; hueco < huecos; hueco++) {
+                if (puntuaciones[hueco] > 0) {
+                    mejores.offer(hueco);
+                    if (mejores.size() > limite) {
+                        mejores.poll();
+                    }
+                }
+            }
+            Integer[] orden = mejores.toArray(new Integer[0]);
+            Arrays.sort(orden, (a, b) -> Double.compare(puntuaciones[b], puntuaciones[a]));
+            for (int hueco : orden) {
+                resultado.put(notaIds[hueco], puntuaciones[hueco]);
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Número de notas indexadas.
+    int tamanio() {
+        lock.readLock().lock();
+        try {
+            return vivos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void eliminarSinBloqueo(long notaId) {
+        Integer hueco = huecoPorNota.remove(notaId);
+        if (hueco == null) {
+            return;
+        }
+        for (String termino : terminosPorHueco[hueco]) {
+            Postings lista = postings.get(termino);
+            if (--lista.vivos == 0) {
+                postings.remove(termino);
+            }
+        }
+        notaIds[hueco] = HUECO_MUERTO;
+        terminosPorHueco[hueco] = null;
+        longitudTotal -= longitudes[hueco];
+        vivos--;
+
+        int muertos = huecos - vivos;
+        if (muertos > 64 && muertos > vivos) {
+            compactar();
+        }
+    }
+
+    private int reservarHueco() {
+        if (huecos == notaIds.length) {
+            int capacidad = huecos * 2;
+            notaIds = Arrays.copyOf(notaIds, capacidad);
+            longitudes = Arrays.copyOf(longitudes, capacidad);
+            terminosPorHueco = Arrays.copyOf(terminosPorHueco, capacidad);
+        }
+        return huecos++;
+    }
+
+    // Renumera los huecos vivos y descarta de los postings las entradas de huecos muertos.
+    private void compactar() {
+        int[] nuevoHueco = new int[huecos];
+        int siguiente = 0;
+        for (int hueco = 0; hueco < huecos; hueco++) {
+            if (notaIds[hueco] == HUECO_MUERTO) {
+                nuevoHueco[hueco] = -1;
+                continue;
+            }
+            nuevoHueco[hueco] = siguiente;
+            notaIds[siguiente] = notaIds[hueco];
+            longitudes[siguiente] = longitudes[hueco];
+            terminosPorHueco[siguiente] = terminosPorHueco[hueco];
+            huecoPorNota.put(notaIds[siguiente], siguiente);
+            siguiente++;
+        }
+        Arrays.fill(terminosPorHueco, siguiente, huecos, null);
+        huecos = siguiente;
+
+        for (Postings lista : postings.values()) {
+            int escritos = 0;
+            for (int i = 0; i < lista.tamanio; i++) {
+                int destino = nuevoHueco[lista.huecos[i]];
+                if (destino >= 0) {
+                    lista.huecos[escritos] = destino;
+                    lista.frecuencias[escritos] = lista.frecuencias[i];
+                    escritos++;
+                }
+            }
+            lista.tamanio = escritos;
+        }
+    }
+}
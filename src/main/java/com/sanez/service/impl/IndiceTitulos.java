@@ -0,0 +1,190 @@
+package com.sanez.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Índice inmutable de los títulos de un usuario para autocompletar.
+// - Prefijo: array ordenado de claves (el título normalizado desde el inicio de cada palabra) con búsqueda binaria,
+//   así "comp" encuentra "Lista de compras".
+// - Similitud por trigramas (como pg_trgm): para títulos mal escritos cuando el prefijo no da resultados.
+// Se reconstruye entero tras una escritura; las lecturas no toman ningún bloqueo.
+final class IndiceTitulos {
+
+    // Umbral de similitud por defecto de pg_trgm.
+    static final double UMBRAL_SIMILITUD = 0.3;
+
+    private final long[] notaIds;
+    private final String[] titulos;
+    private final String[] claves;
+    private final int[] huecoDeClave;
+    private final int[] numTrigramas;
+    private final Map<Long, int[]> postingsTrigramas;
+
+    private IndiceTitulos(long[] notaIds, String[] titulos, String[] claves, int[] huecoDeClave,
+                          int[] numTrigramas, Map<Long, int[]> postingsTrigramas) {
+        this.notaIds = notaIds;
+        this.titulos = titulos;
+        this.claves = claves;
+        this.huecoDeClave = huecoDeClave;
+        this.numTrigramas = numTrigramas;
+        this.postingsTrigramas = postingsTrigramas;
+    }
+
+    // Construye el índice a partir de id de nota -> título.
+    static IndiceTitulos construir(Map<Long, String> titulosPorNota) {
+        int n = titulosPorNota.size();
+        long[] notaIds = new long[n];
+        String[] titulos = new String[n];
+        int[] numTrigramas = new int[n];
+        List<String> clavesSinOrden = new ArrayList<>();
+        List<Integer> huecos = new ArrayList<>();
+        Map<Long, List<Integer>> trigramas = new HashMap<>();
+
+        int hueco = 0;
+        for (Map.Entry<Long, String> entrada : titulosPorNota.entrySet()) {
+            notaIds[hueco] = entrada.getKey();
+            titulos[hueco] = entrada.getValue();
+            String normalizado = AnalizadorTexto.normalizar(entrada.getValue());
+            for (int i = 0; i < normalizado.length(); i++) {
+                boolean inicioPalabra = Character.isLetterOrDigit(normalizado.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(normalizado.charAt(i - 1)));
+                if (inicioPalabra) {
+                    clavesSinOrden.add(normalizado.substring(i));
+                    huecos.add(hueco);
+                }
+            }
+            Set<Long> propios = trigramas(normalizado);
+            numTrigramas[hueco] = propios.size();
+            for (long trigrama : propios) {
+                trigramas.computeIfAbsent(trigrama, t -> new ArrayList<>()).add(hueco);
+            }
+            hueco++;
+        }
+
+        Integer[] orden = new Integer[clavesSinOrden.size()];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> clavesSinOrden.get(a).compareTo(clavesSinOrden.get(b)));
+        String[] claves = new String[orden.length];
+        int[] huecoDeClave = new int[orden.length];
+        for (int i = 0; i < orden.length; i++) {
+            claves[i] = clavesSinOrden.get(orden[i]);
+            huecoDeClave[i] = huecos.get(orden[i]);
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(trigramas.size() * 2);
+        trigramas.forEach((trigrama, lista) -> postings.put(trigrama,
+                lista.stream().mapToInt(Integer::intValue).toArray()));
+
+        return new IndiceTitulos(notaIds, titulos, claves, huecoDeClave, numTrigramas, postings);
+    }
+
+    // Títulos con alguna palabra que empieza por el prefijo (sin tildes ni mayúsculas), en orden alfabético.
+    List<Sugerencia> porPrefijo(String prefijo, int limite) {
+        String buscado = AnalizadorTexto.normalizar(prefijo).strip();
+        List<Sugerencia> resultado = new ArrayList<>();
+        if (buscado.isEmpty()) {
+            return resultado;
+        }
+        Set<Integer> vistos = new LinkedHashSet<>();
+        for (int i = limiteInferior(buscado); i < claves.length && claves[i].startsWith(buscado); i++) {
+            int hueco = huecoDeClave[i];
+            if (vistos.add(hueco)) {
+                resultado.add(new Sugerencia(notaIds[hueco], titulos[hueco]));
+                if (resultado.size() == limite) {
+                    break;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    // Títulos cuya similitud de trigramas con el texto supera el umbral, de más a menos parecidos.
+    List<Sugerencia> porSimilitud(String texto, int limite) {
+        Set<Long> buscados = trigramas(AnalizadorTexto.normalizar(texto));
+        List<Sugerencia> resultado = new ArrayList<>();
+        if (buscados.isEmpty()) {
+            return resultado;
+        }
+        int[] compartidos = new int[notaIds.length];
+        for (long trigrama : buscados) {
+            int[] lista = postingsTrigramas.get(trigrama);
+            if (lista != null) {
+                for (int hueco : lista) {
+                    compartidos[hueco]++;
+                }
+            }
+        }
+        double[] similitud = new double[notaIds.length];
+        List<Integer> candidatos = new ArrayList<>();
+        for (int hueco = 0; hueco < notaIds.length; hueco++) {
+            if (compartidos[hueco] > 0) {
+                similitud[hueco] = (double) compartidos[hueco]
+                        / (buscados.size() + numTrigramas[hueco] - compartidos[hueco]);
+                if (similitud[hueco] >= UMBRAL_SIMILITUD) {
+                    candidatos.add(hueco);
+                }
+            }
+        }
+        candidatos.sort((a, b) -> Double.compare(similitud[b], similitud[a]));
+        for (int hueco : candidatos.subList(0, Math.min(limite, candidatos.size()))) {
+            resultado.add(new Sugerencia(notaIds[hueco], titulos[hueco]));
+        }
+        return resultado;
+    }
+
+    private int limiteInferior(String buscado) {
+        int bajo = 0;
+        int alto = claves.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (claves[medio].compareTo(buscado) < 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    // Trigramas al estilo pg_trgm: cada palabra con dos espacios delante y uno detrás, empaquetados en un long.
+    private static Set<Long> trigramas(String normalizado) {
+        Set<Long> resultado = new LinkedHashSet<>();
+        for (String palabra : normalizado.split("[^\\p{L}\\p{Nd}]+")) {
+            if (palabra.isEmpty()) {
+                continue;
+            }
+            String relleno = "  " + palabra + " ";
+            for (int i = 0; i + 3 <= relleno.length(); i++) {
+                resultado.add(((long) relleno.charAt(i) << 32) | ((long) relleno.charAt(i + 1) << 16)
+                        | relleno.charAt(i + 2));
+            }
+        }
+        return resultado;
+    }
+
+    // Sugerencia devuelta por el índice: id y título original.
+    static final class Sugerencia {
+        private final long notaId;
+        private final String titulo;
+
+        Sugerencia(long notaId, String titulo) {
+            this.notaId = notaId;
+            this.titulo = titulo;
+        }
+
+        long getNotaId() {
+            return notaId;
+        }
+
+        String getTitulo() {
+            return titulo;
+        }
+    }
+}
@@ -1,33 +1,113 @@
 package com.sanez.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sanez.dto.nota.NotaBatchRequestDTO;
+import com.sanez.dto.nota.NotaBusquedaDTO;
+import com.sanez.dto.nota.NotaCambiosDTO;
+import com.sanez.dto.nota.NotaImportErrorDTO;
+import com.sanez.dto.nota.NotaImportResultadoDTO;
+import com.sanez.dto.nota.NotaOperacionDTO;
+import com.sanez.dto.nota.NotaOperacionResultadoDTO;
+import com.sanez.dto.nota.NotaPaginaDTO;
 import com.sanez.dto.nota.NotaRequestDTO;
 import com.sanez.dto.nota.NotaResponseDTO;
+import com.sanez.dto.nota.NotaSugerenciaDTO;
+import com.sanez.dto.nota.NotaSummary;
 import com.sanez.dto.nota.NotaUpdateDTO;
 import com.sanez.exception.AccesoNoAutorizadoException;
 import com.sanez.exception.OperacionNoPermitidaException;
+import com.sanez.exception.PrecondicionFallidaException;
 import com.sanez.exception.RecursoNoEncontradoException;
 import com.sanez.mapper.NotaMapper;
 import com.sanez.model.Nota;
-import com.sanez.model.Usuario;
+import com.sanez.model.NotaEliminada;
+import com.sanez.repository.NotaEliminadaRepository;
+import com.sanez.repository.NotaJdbcRepository;
 import com.sanez.repository.NotaRepository;
 import com.sanez.repository.UsuarioRepository;
 import com.sanez.security.service.CustomUserDetails;
+import com.sanez.service.BuscadorNotas;
 import com.sanez.service.NotaService;
+import com.sanez.service.SugeridorTitulos;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class NotaServiceImpl implements NotaService {
 
+    // Tamaño máximo de página para GET /api/notas.
+    static final int MAX_LIMIT = 200;
+    // Máximo de resultados por página y desplazamiento máximo para GET /api/notas/search.
+    static final int MAX_RESULTADOS_BUSQUEDA = 100;
+    static final int MAX_DESPLAZAMIENTO_BUSQUEDA = 1000;
+    // Máximo de sugerencias para GET /api/notas/suggest.
+    static final int MAX_SUGERENCIAS = 20;
+    // Máximo de cambios (notas y lápidas) por página de GET /api/notas/changes.
+    static final int MAX_CAMBIOS = 500;
+    // Cada cuántas notas se vacía el buffer de salida durante la exportación.
+    private static final int FLUSH_CADA = 500;
+    // Máximo de rechazos detallados en la respuesta de importación (el contador sigue sumando).
+    static final int MAX_ERRORES_REPORTADOS = 1000;
+
     private final NotaRepository notaRepository;
     private final UsuarioRepository usuarioRepository;
+    private final NotaJdbcRepository notaJdbcRepository;
+    private final NotaEliminadaRepository notaEliminadaRepository;
+    private final BuscadorNotas buscadorNotas;
+    private final SugeridorTitulos sugeridorTitulos;
+    private final NotaSummaryCache notaSummaryCache;
+    private final SingleFlight singleFlight;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int importBatchSize;
 
-    public NotaServiceImpl(NotaRepository notaRepository, UsuarioRepository usuarioRepository) {
+    public NotaServiceImpl(NotaRepository notaRepository, UsuarioRepository usuarioRepository,
+                           NotaJdbcRepository notaJdbcRepository, NotaEliminadaRepository notaEliminadaRepository,
+                           BuscadorNotas buscadorNotas, SugeridorTitulos sugeridorTitulos,
+                           NotaSummaryCache notaSummaryCache, SingleFlight singleFlight,
+                           EntityManager entityManager,
+                           ObjectMapper objectMapper, Validator validator,
+                           @Value("${notas.import.batch-size:500}") int importBatchSize) {
         this.notaRepository = notaRepository;
         this.usuarioRepository = usuarioRepository;
+        this.notaJdbcRepository = notaJdbcRepository;
+        this.notaEliminadaRepository = notaEliminadaRepository;
+        this.buscadorNotas = buscadorNotas;
+        this.sugeridorTitulos = sugeridorTitulos;
+        this.notaSummaryCache = notaSummaryCache;
+        this.singleFlight = singleFlight;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.importBatchSize = importBatchSize;
     }
 
     // Crear nota
@@ -36,39 +116,291 @@ public class NotaServiceImpl implements NotaService {
     public NotaResponseDTO crearNota(NotaRequestDTO notaRequestDTO) {
         Long usuarioId = obtenerIdUsuarioAutenticado();
 
-        Usuario usuario = usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> new RecursoNoEncontradoException(
-                        "Usuario con id " + usuarioId + " no encontrado"));
+        // registrarCambio ya falla con 404 si el usuario no existe, así que basta una referencia
+        // (proxy sin SELECT) para fijar la clave foránea; no se cargan el usuario ni sus roles.
+        long cambio = registrarCambio(usuarioId);
 
         Nota nota = NotaMapper.toEntity(notaRequestDTO);
-        nota.setUsuario(usuario);
+        nota.setUsuario(usuarioRepository.getReferenceById(usuarioId));
+        nota.setCambio(cambio);
 
         Nota notaGuardada = notaRepository.save(nota);
+        buscadorNotas.notaGuardada(usuarioId, cambio, notaGuardada.getId(), notaGuardada.getTitulo(),
+                notaGuardada.getContenido());
+        sugeridorTitulos.notaGuardada(usuarioId, cambio, notaGuardada.getId(), notaGuardada.getTitulo());
+        notaSummaryCache.notaGuardada(usuarioId, cambio, notaGuardada.getId(), notaGuardada.getTitulo(),
+                notaGuardada.getContenido());
         return NotaMapper.toResponseDTO(notaGuardada);
     }
 
-    // Obtener notas por usuario (solo lectura)
+    // Obtener notas por usuario paginadas por cursor (solo lectura)
+    // Se pide una fila de más para saber si existe una página siguiente sin hacer un count.
+    // La página sale de NotaSummaryCache; solo un fallo de caché consulta la base de datos.
+    // versionMinima es el contador con el que se calculó el ETag: la caché se recarga si va por detrás.
+    // Sin transacción propia: un acierto no toma conexión.
+    @Override
+    public NotaPaginaDTO obtenerNotasPorUsuario(Long after, int limit, long versionMinima) {
+        Long usuarioId = obtenerIdUsuarioAutenticado();
+        int tamanio = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        long despuesDe = after != null ? after : 0L;
+
+        List<NotaSummary> notas = notaSummaryCache.pagina(usuarioId, despuesDe, tamanio + 1, versionMinima);
+
+        boolean hayMas = notas.size() > tamanio;
+        List<NotaSummary> pagina = hayMas ? notas.subList(0, tamanio) : notas;
+        Long nextCursor = hayMas ? pagina.get(pagina.size() - 1).getId() : null;
+
+        return new NotaPaginaDTO(pagina, nextCursor);
+    }
+
+    // Contador de cambios de las notas del usuario, sin cargar ninguna nota
+    // Las peticiones idénticas simultáneas (varias pestañas o dispositivos) comparten la consulta.
+    @Override
+    public long obtenerVersionNotas() {
+        Long usuarioId = obtenerIdUsuarioAutenticado();
+        return singleFlight.ejecutar(usuarioId, "notas.version",
+                () -> usuarioRepository.findVersionNotasById(usuarioId)
+                        .orElseThrow(() -> new RecursoNoEncontradoException("Usuario no encontrado")));
+    }
+
+    // ETag del listado de notas: id de usuario + contador de cambios
+    // El id evita colisiones entre cuentas que comparten la caché del navegador.
+    @Override
+    public String obtenerEtagNotas(long version) {
+        return "\"notas-" + obtenerIdUsuarioAutenticado() + "-" + version + "\"";
+    }
+
+    // Obtener una nota propia con el contenido completo (solo lectura)
+    @Override
+    @Transactional(readOnly = true)
+    public NotaResponseDTO obtenerNota(Long notaId) {
+        Long usuarioId = obtenerIdUsuarioAutenticado();
+        return NotaMapper.toResponseDTO(obtenerNotaValidaParaUsuario(notaId, usuarioId));
+    }
+
+    // Búsqueda de texto en las notas del usuario, ordenada por relevancia (ver BuscadorNotas)
+    @Override
+    public List<NotaBusquedaDTO> buscarNotas(String consulta, int offset, int limit) {
+        Long usuarioId = obtenerIdUsuarioAutenticado();
+        if (consulta == null || consulta.isBlank()) {
+            return List.of();
+        }
+        return buscadorNotas.buscar(usuarioId, consulta,
+                Math.min(Math.max(offset, 0), MAX_DESPLAZAMIENTO_BUSQUEDA),
+                Math.min(Math.max(limit, 1), MAX_RESULTADOS_BUSQUEDA));
+    }
+
+    // Autocompletado de títulos por prefijo, con títulos parecidos como complemento (ver SugeridorTitulos)
+    // Sin transacción: se resuelve en memoria una vez cargados los títulos del usuario.
+    @Override
+    public List<NotaSugerenciaDTO> sugerirTitulos(String prefijo, int limit) {
+        Long usuarioId = obtenerIdUsuarioAutenticado();
+        if (prefijo == null || prefijo.isBlank()) {
+            return List.of();
+        }
+        return sugeridorTitulos.sugerir(usuarioId, prefijo, Math.min(Math.max(limit, 1), MAX_SUGERENCIAS));
+    }
+
+    // Exportar todas las notas del usuario como NDJSON (una nota JSON por línea)
+    // Cada nota se escribe y se desvincula del contexto de persistencia, así la memoria no crece con el número de notas.
     @Override
     @Transactional(readOnly = true)
-    public List<NotaResponseDTO> obtenerNotasPorUsuario() {
+    public void exportarNotas(OutputStream salida) throws IOException {
         Long usuarioId = obtenerIdUsuarioAutenticado();
 
-        return notaRepository.findByUsuarioId(usuarioId).stream()
-                .map(NotaMapper::toResponseDTO)
-                .toList();
+        try (Stream<Nota> notas = notaRepository.streamByUsuarioId(usuarioId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(salida)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            int escritas = 0;
+            Iterator<Nota> iterador = notas.iterator();
+            while (iterador.hasNext()) {
+                Nota nota = iterador.next();
+                objectMapper.writeValue(generator, NotaMapper.toResponseDTO(nota));
+                generator.writeRaw('\n');
+                entityManager.detach(nota);
+                if (++escritas % FLUSH_CADA == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    // Importar notas desde un array JSON o NDJSON, leyendo el cuerpo registro a registro
+    // Cada registro se valida con las restricciones de NotaRequestDTO; los válidos se insertan en lotes JDBC.
+    // Un JSON mal formado detiene la lectura, pero se conservan los registros aceptados hasta ese punto.
+    @Override
+    @Transactional
+    public NotaImportResultadoDTO importarNotas(InputStream entrada) throws IOException {
+        Long usuarioId = obtenerIdUsuarioAutenticado();
+        long cambio = registrarCambio(usuarioId);
+        NotaImportResultadoDTO resultado = new NotaImportResultadoDTO();
+        List<Nota> lote = new ArrayList<>(importBatchSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(entrada)) {
+            JsonToken token = parser.nextToken();
+            boolean esArray = token == JsonToken.START_ARRAY;
+            if (esArray) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                long linea = parser.currentTokenLocation().getLineNr();
+                JsonNode registro = objectMapper.readTree(parser);
+
+                String error = validarRegistro(registro, lote);
+                if (error == null) {
+                    resultado.setAceptadas(resultado.getAceptadas() + 1);
+                } else {
+                    rechazar(resultado, linea, error);
+                }
+
+                if (lote.size() >= importBatchSize) {
+                    notaJdbcRepository.insertarLote(usuarioId, cambio, lote);
+                    lote.clear();
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            long linea = e.getLocation() != null ? e.getLocation().getLineNr() : -1;
+            rechazar(resultado, linea, "JSON mal formado: " + e.getOriginalMessage());
+        }
+
+        notaJdbcRepository.insertarLote(usuarioId, cambio, lote);
+        buscadorNotas.notasModificadas(usuarioId);
+        sugeridorTitulos.notasModificadas(usuarioId);
+        notaSummaryCache.notasModificadas(usuarioId);
+        return resultado;
+    }
+
+    // Aplicar un lote de operaciones (crear, editar, eliminar) en una sola transacción
+    // La propiedad de todas las notas referenciadas se comprueba con una única consulta IN y los cambios
+    // se envían como batches JDBC. Cada operación obtiene su propio resultado; las inválidas no afectan al resto.
+    @Override
+    @Transactional
+    public List<NotaOperacionResultadoDTO> procesarLote(NotaBatchRequestDTO request) {
+        Long usuarioId = obtenerIdUsuarioAutenticado();
+        List<NotaOperacionDTO> operaciones = request.getOperaciones();
+
+        // Todo el lote comparte un único número de cambio. Se registra antes de leer los propietarios: el bloqueo
+        // de la fila del usuario serializa sus escrituras y la foto de propietarios sigue válida hasta el commit.
+        long cambio = registrarCambio(usuarioId);
+
+        Set<Long> idsObjetivo = operaciones.stream()
+                .map(NotaOperacionDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Long> propietarios = idsObjetivo.isEmpty() ? Map.of()
+                : notaRepository.findPropietarios(idsObjetivo).stream()
+                .collect(Collectors.toMap(NotaRepository.NotaPropietario::getId,
+                        NotaRepository.NotaPropietario::getUsuarioId));
+
+        NotaOperacionResultadoDTO[] resultados = new NotaOperacionResultadoDTO[operaciones.size()];
+        List<Nota> creaciones = new ArrayList<>();
+        List<Integer> indicesCreacion = new ArrayList<>();
+        List<NotaJdbcRepository.EdicionNota> ediciones = new ArrayList<>();
+        List<Integer> indicesEdicion = new ArrayList<>();
+        List<Long> eliminaciones = new ArrayList<>();
+        List<Integer> indicesEliminacion = new ArrayList<>();
+        Set<Long> eliminadas = new HashSet<>();
+
+        for (int i = 0; i < operaciones.size(); i++) {
+            NotaOperacionDTO op = operaciones.get(i);
+
+            if (op.getTipo() == NotaOperacionDTO.Tipo.CREAR) {
+                NotaRequestDTO dto = new NotaRequestDTO(op.getTitulo(), op.getContenido());
+                String error = violaciones(dto);
+                if (error != null) {
+                    resultados[i] = resultado(i, op, null, 400, error);
+                } else {
+                    creaciones.add(NotaMapper.toEntity(dto));
+                    indicesCreacion.add(i);
+                }
+                continue;
+            }
+
+            // EDITAR y ELIMINAR: la nota debe existir, ser propia y no haberse eliminado antes en el mismo lote.
+            Long propietario = op.getId() != null && !eliminadas.contains(op.getId())
+                    ? propietarios.get(op.getId()) : null;
+            if (propietario == null) {
+                resultados[i] = resultado(i, op, op.getId(), 404, "Nota no encontrada");
+            } else if (!propietario.equals(usuarioId)) {
+                resultados[i] = resultado(i, op, op.getId(), 403, "No tienes permiso para esta nota");
+            } else if (op.getTipo() == NotaOperacionDTO.Tipo.EDITAR) {
+                String error = violaciones(new NotaUpdateDTO(op.getTitulo(), op.getContenido()));
+                if (error != null) {
+                    resultados[i] = resultado(i, op, op.getId(), 400, error);
+                } else {
+                    ediciones.add(new NotaJdbcRepository.EdicionNota(op.getId(), op.getTitulo(), op.getContenido(),
+                            op.getVersion() != null ? op.getVersion() : -1L));
+                    indicesEdicion.add(i);
+                }
+            } else {
+                eliminaciones.add(op.getId());
+                indicesEliminacion.add(i);
+                eliminadas.add(op.getId());
+            }
+        }
+
+        List<Long> idsCreados = notaJdbcRepository.insertarLote(usuarioId, cambio, creaciones);
+        for (int j = 0; j < indicesCreacion.size(); j++) {
+            int indice = indicesCreacion.get(j);
+            resultados[indice] = resultado(indice, operaciones.get(indice), idsCreados.get(j), 201, null);
+        }
+        // El resultado de cada edición y eliminación sale de las filas que afectó realmente su sentencia.
+        int[] editadas = notaJdbcRepository.actualizarLote(usuarioId, cambio, ediciones);
+        for (int j = 0; j < indicesEdicion.size(); j++) {
+            int indice = indicesEdicion.get(j);
+            NotaOperacionDTO op = operaciones.get(indice);
+            if (editadas[j] != 0) {
+                resultados[indice] = resultado(indice, op, op.getId(), 200, null);
+            } else if (op.getVersion() != null) {
+                resultados[indice] = resultado(indice, op, op.getId(), 412,
+                        "La nota fue modificada por otra petición; vuelve a obtenerla");
+            } else {
+                resultados[indice] = resultado(indice, op, op.getId(), 404, "Nota no encontrada");
+            }
+        }
+        int[] borradas = notaJdbcRepository.eliminarLote(usuarioId, cambio, eliminaciones);
+        for (int j = 0; j < indicesEliminacion.size(); j++) {
+            int indice = indicesEliminacion.get(j);
+            NotaOperacionDTO op = operaciones.get(indice);
+            resultados[indice] = borradas[j] != 0 ? resultado(indice, op, op.getId(), 204, null)
+                    : resultado(indice, op, op.getId(), 404, "Nota no encontrada");
+        }
+        buscadorNotas.notasModificadas(usuarioId);
+        sugeridorTitulos.notasModificadas(usuarioId);
+        notaSummaryCache.notasModificadas(usuarioId);
+
+        return Arrays.asList(resultados);
     }
 
     // Editar nota
     @Override
     @Transactional
-    public NotaResponseDTO editarNota(Long notaId, NotaUpdateDTO notaUpdateDTO) {
+    public NotaResponseDTO editarNota(Long notaId, NotaUpdateDTO notaUpdateDTO, Long versionEsperada) {
         Long usuarioId = obtenerIdUsuarioAutenticado();
-        Nota nota = obtenerNotaValidaParaUsuario(notaId, usuarioId);
 
-        NotaMapper.actualizarNotaDesdeDTO(nota, notaUpdateDTO);
+        // UPDATE condicional (propietario + versión) que devuelve la fila editada: sin lectura previa ni posterior.
+        long cambio = registrarCambio(usuarioId);
+        Optional<NotaResponseDTO> editada = notaJdbcRepository.actualizarSiVersion(notaId, usuarioId,
+                versionEsperada != null ? versionEsperada : -1L,
+                notaUpdateDTO.getTitulo(), notaUpdateDTO.getContenido(), cambio, Instant.now());
 
-        Nota notaActualizada = notaRepository.save(nota);
-        return NotaMapper.toResponseDTO(notaActualizada);
+        if (editada.isEmpty()) {
+            // Si la nota existe y es del usuario, lo único que falló fue la versión (412).
+            validarExisteYPertenece(notaId, usuarioId);
+            throw new PrecondicionFallidaException("La nota fue modificada por otra petición; vuelve a obtenerla");
+        }
+
+        NotaResponseDTO notaActualizada = editada.get();
+        buscadorNotas.notaGuardada(usuarioId, cambio, notaId, notaActualizada.getTitulo(),
+                notaActualizada.getContenido());
+        sugeridorTitulos.notaGuardada(usuarioId, cambio, notaId, notaActualizada.getTitulo());
+        notaSummaryCache.notaGuardada(usuarioId, cambio, notaId, notaActualizada.getTitulo(),
+                notaActualizada.getContenido());
+        return notaActualizada;
     }
 
     // Eliminar nota
@@ -76,15 +408,96 @@ public class NotaServiceImpl implements NotaService {
     @Transactional
     public void eliminarNota(Long notaId) {
         Long usuarioId = obtenerIdUsuarioAutenticado();
-        Nota nota = obtenerNotaValidaParaUsuario(notaId, usuarioId);
 
-        notaRepository.delete(nota);
+        long cambio = registrarCambio(usuarioId);
+        // DELETE con el predicado de propietario: una sola sentencia, sin cargar la nota.
+        if (notaRepository.eliminarDeUsuario(notaId, usuarioId) == 0) {
+            validarExisteYPertenece(notaId, usuarioId);
+        }
+        // persist en lugar de save: el id es asignado y save haría un SELECT previo para decidir entre insert y merge.
+        entityManager.persist(new NotaEliminada(notaId, usuarioRepository.getReferenceById(usuarioId),
+                cambio, Instant.now()));
+        buscadorNotas.notaEliminada(usuarioId, cambio, notaId);
+        sugeridorTitulos.notaEliminada(usuarioId, cambio, notaId);
+        notaSummaryCache.notaEliminada(usuarioId, cambio, notaId);
+    }
+
+    // Cambios desde el token de sincronización (delta sync), paginados por número de cambio
+    // Sin "since" se devuelven todas las notas; con "since" solo las modificadas y las eliminadas desde ese token.
+    // Cada página cubre cambios completos hasta su token; con hayMas el cliente sigue con since=token.
+    // Si "since" es anterior a las lápidas purgadas los borrados ya no se pueden reconstruir: resincronizar.
+    @Override
+    @Transactional(readOnly = true)
+    public NotaCambiosDTO obtenerCambios(Long since, int limit) {
+        Long usuarioId = obtenerIdUsuarioAutenticado();
+        int tamanio = Math.min(Math.max(limit, 1), MAX_CAMBIOS);
+        UsuarioRepository.EstadoCambios estado = usuarioRepository.findEstadoCambiosById(usuarioId)
+                .orElseThrow(() -> new RecursoNoEncontradoException("Usuario no encontrado"));
+
+        if (since != null && since < estado.getCambioPurgado()) {
+            return new NotaCambiosDTO(List.of(), List.of(), since, false, true);
+        }
+
+        long desde = since != null ? since : -1L;
+        long hasta = estado.getVersionNotas();
+        // Una fila de más en cada consulta basta para saber dónde cortar la página.
+        List<Nota> notas = notaRepository.findCambios(usuarioId, desde, hasta, Limit.of(tamanio + 1));
+        List<NotaEliminada> lapidas = since != null
+                ? notaEliminadaRepository.findEliminadas(usuarioId, desde, hasta, Limit.of(tamanio + 1))
+                : List.of();
+
+        boolean hayMas = notas.size() + lapidas.size() > tamanio;
+        if (hayMas) {
+            // El token es un número de cambio, así que la página se corta antes del primer cambio que no cabe.
+            long corte = cambioEnPosicion(notas, lapidas, tamanio);
+            if (cambioEnPosicion(notas, lapidas, 0) < corte) {
+                hasta = corte - 1;
+                long ultimo = hasta;
+                notas = notas.stream().filter(nota -> nota.getCambio() <= ultimo).toList();
+                lapidas = lapidas.stream().filter(lapida -> lapida.getCambio() <= ultimo).toList();
+            } else {
+                // Un solo cambio (lote o importación) con más filas que la página: no se puede partir, va entero.
+                hasta = corte;
+                notas = notaRepository.findCambios(usuarioId, corte - 1, corte, Limit.unlimited());
+                lapidas = since != null
+                        ? notaEliminadaRepository.findEliminadas(usuarioId, corte - 1, corte, Limit.unlimited())
+                        : List.of();
+            }
+            hayMas = hasta < estado.getVersionNotas();
+        }
+
+        List<NotaResponseDTO> actualizadas = notas.stream().map(NotaMapper::toResponseDTO).toList();
+        List<Long> eliminadas = lapidas.stream().map(NotaEliminada::getNotaId).toList();
+        return new NotaCambiosDTO(actualizadas, eliminadas, hasta, hayMas, false);
     }
 
     // ============================================
     // MÉTODOS PRIVADOS AUXILIARES
     // ============================================
 
+    // Número de cambio del elemento en la posición indicada al mezclar notas y lápidas (ambas ordenadas por cambio).
+    private static long cambioEnPosicion(List<Nota> notas, List<NotaEliminada> lapidas, int posicion) {
+        int i = 0;
+        int j = 0;
+        long cambio = 0;
+        for (int k = 0; k <= posicion; k++) {
+            if (j >= lapidas.size() || (i < notas.size() && notas.get(i).getCambio() <= lapidas.get(j).getCambio())) {
+                cambio = notas.get(i++).getCambio();
+            } else {
+                cambio = lapidas.get(j++).getCambio();
+            }
+        }
+        return cambio;
+    }
+
+    // Reserva el siguiente número de cambio del usuario (puede dejar huecos si no se llega a escribir nada)
+    private long registrarCambio(Long usuarioId) {
+        usuarioRepository.incrementarVersionNotas(usuarioId);
+        singleFlight.olvidar(usuarioId);
+        return usuarioRepository.findVersionNotasById(usuarioId)
+                .orElseThrow(() -> new RecursoNoEncontradoException("Usuario no encontrado"));
+    }
+
     // Obtiene el ID del usuario autenticado o lanza 401
     private Long obtenerIdUsuarioAutenticado() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -94,7 +507,63 @@ public class NotaServiceImpl implements NotaService {
         throw new AccesoNoAutorizadoException("Usuario no autenticado");
     }
 
+    // Convierte y valida un registro importado; si es válido lo añade al lote y devuelve null, si no el motivo
+    private String validarRegistro(JsonNode registro, List<Nota> lote) {
+        NotaRequestDTO dto;
+        try {
+            dto = objectMapper.treeToValue(registro, NotaRequestDTO.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return "Formato de nota inválido";
+        }
+        if (dto == null) {
+            return "Formato de nota inválido";
+        }
+
+        String error = violaciones(dto);
+        if (error != null) {
+            return error;
+        }
+
+        lote.add(NotaMapper.toEntity(dto));
+        return null;
+    }
+
+    // Devuelve los mensajes de validación del DTO separados por "; " o null si es válido
+    private <T> String violaciones(T dto) {
+        Set<ConstraintViolation<T>> violaciones = validator.validate(dto);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static NotaOperacionResultadoDTO resultado(int indice, NotaOperacionDTO op, Long id,
+                                                       int status, String mensaje) {
+        return new NotaOperacionResultadoDTO(indice, op.getTipo(), id, status, mensaje);
+    }
+
+    private static void rechazar(NotaImportResultadoDTO resultado, long linea, String mensaje) {
+        resultado.setRechazadas(resultado.getRechazadas() + 1);
+        if (resultado.getErrores().size() < MAX_ERRORES_REPORTADOS) {
+            resultado.getErrores().add(new NotaImportErrorDTO(linea, mensaje));
+        }
+    }
+
     // Verifica que la nota exista y pertenezca al usuario
+    // Tras una escritura que no afectó filas: 404 si la nota no existe, 403 si es de otro usuario.
+    // Es la única consulta extra y solo se hace en el caso de error.
+    private void validarExisteYPertenece(Long notaId, Long usuarioId) {
+        NotaRepository.NotaPropietario propietario = notaRepository.findPropietarios(List.of(notaId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new RecursoNoEncontradoException("Nota no encontrada"));
+        if (!propietario.getUsuarioId().equals(usuarioId)) {
+            throw new OperacionNoPermitidaException("No tienes permiso para esta nota");
+        }
+    }
+
     private Nota obtenerNotaValidaParaUsuario(Long notaId, Long usuarioId) {
         Nota nota = notaRepository.findById(notaId)
                 .orElseThrow(() -> new RecursoNoEncontradoException("Nota no encontrada"));
@@ -0,0 +1,275 @@
+package com.sanez.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sanez.dto.nota.NotaSummary;
+import com.sanez.repository.NotaRepository;
+import com.sanez.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+// Caché de lectura de los resúmenes (id, título, extracto) de las notas de cada usuario, ordenados por id.
+// El listado paginado por cursor se sirve desde aquí con una búsqueda binaria. Las escrituras de NotaServiceImpl
+// actualizan la entrada tras el commit (copia en escritura) en lugar de invalidarla.
+// Cada entrada recuerda el número de cambio del usuario que refleja (ver EntradaVersionada): el listado recibe el
+// contador que acaba de leer para el ETag y recarga la entrada si va por detrás, así el cuerpo nunca es más
+// antiguo que su ETag. La expulsión es por peso: el tamaño aproximado en memoria de los títulos y extractos.
+// Las entradas con resúmenes caducan por inactividad; la marca de demasiadas notas caduca poco después de
+// escribirse aunque se siga leyendo, para que un usuario que borra notas vuelva a cachearse.
+@Component
+public class NotaSummaryCache implements MeterBinder {
+
+    // Sobrecoste aproximado por resumen (objeto, cabeceras de String, hueco en los arrays).
+    private static final int BYTES_POR_RESUMEN = 96;
+
+    private final NotaRepository notaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final SingleFlight singleFlight;
+    private final Cache<Long, EntradaVersionada<ResumenesUsuario>> cache;
+    private final int maxNotasPorUsuario;
+
+    public NotaSummaryCache(NotaRepository notaRepository,
+                            UsuarioRepository usuarioRepository,
+                            SingleFlight singleFlight,
+                            @Value("${notas.summary-cache.max-bytes:67108864}") long maxBytes,
+                            @Value("${notas.summary-cache.max-notas-por-usuario:5000}") int maxNotasPorUsuario,
+                            @Value("${notas.summary-cache.expira-minutos:30}") long expiraMinutos,
+                            @Value("${notas.summary-cache.demasiadas-expira-segundos:60}")
+                            long demasiadasExpiraSegundos) {
+        this.notaRepository = notaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.singleFlight = singleFlight;
+        this.maxNotasPorUsuario = maxNotasPorUsuario;
+        long expiraNanos = Duration.ofMinutes(expiraMinutos).toNanos();
+        long demasiadasNanos = TimeUnit.SECONDS.toNanos(demasiadasExpiraSegundos);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long usuarioId, EntradaVersionada<ResumenesUsuario> entrada) -> entrada.valor().bytes)
+                .expireAfter(new Expiry<Long, EntradaVersionada<ResumenesUsuario>>() {
+                    @Override
+                    public long expireAfterCreate(Long usuarioId, EntradaVersionada<ResumenesUsuario> entrada,
+                                                  long currentTime) {
+                        return entrada.valor().demasiadas ? demasiadasNanos : expiraNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long usuarioId, EntradaVersionada<ResumenesUsuario> entrada,
+                                                  long currentTime, long currentDuration) {
+                        return entrada.valor().demasiadas ? demasiadasNanos : expiraNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long usuarioId, EntradaVersionada<ResumenesUsuario> entrada,
+                                                long currentTime, long currentDuration) {
+                        // Leer la marca no prolonga su vida.
+                        return entrada.valor().demasiadas ? currentDuration : expiraNanos;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    // Página de resúmenes con id mayor que el cursor, con al menos los cambios hasta versionMinima.
+    // Si la entrada va por detrás (escrituras de otro nodo o avisos aún no aplicados) se recarga una sola vez
+    // aunque lean varios hilos a la vez (igual que la carga inicial, que Caffeine ya agrupa por clave).
+    // Los usuarios con más de maxNotasPorUsuario notas no se cachean (solo se guarda una marca) y se consultan
+    // en la base de datos; solo esa consulta pasa por SingleFlight.
+    public List<NotaSummary> pagina(Long usuarioId, long despuesDe, int limite, long versionMinima) {
+        EntradaVersionada<ResumenesUsuario> entrada = cache.get(usuarioId, this::cargar);
+        if (entrada.valor().demasiadas) {
+            return singleFlight.ejecutar(usuarioId, "notas:" + despuesDe + ":" + limite,
+                    () -> notaRepository.findPaginaPorUsuario(usuarioId, despuesDe, Limit.of(limite)));
+        }
+        if (entrada.cambio() < versionMinima) {
+            entrada = cache.asMap().compute(usuarioId, (id, actual) ->
+                    actual != null && actual.cambio() >= versionMinima ? actual : cargar(id));
+        }
+        return entrada.valor().pagina(despuesDe, limite);
+    }
+
+    // Alta o edición de una nota: tras el commit y en orden de cambio, se sustituye la entrada del usuario
+    // por una copia con el resumen actualizado.
+    public void notaGuardada(Long usuarioId, long cambio, Long notaId, String titulo, String contenido) {
+        Resumen resumen = new Resumen(notaId, titulo, extracto(contenido));
+        actualizar(usuarioId, cambio, resumenes -> resumenes.conResumen(resumen));
+    }
+
+    public void notaEliminada(Long usuarioId, long cambio, Long notaId) {
+        actualizar(usuarioId, cambio, resumenes -> resumenes.sinNota(notaId));
+    }
+
+    // Escrituras masivas (importación, lotes): se descarta la entrada y se recarga en la siguiente lectura.
+    public void notasModificadas(Long usuarioId) {
+        TrasCommit.ejecutar(() -> cache.invalidate(usuarioId));
+    }
+
+    // Publica cache.gets/puts/evictions con name=notas.summary, la tasa de aciertos y el peso total en bytes.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "notas.summary");
+        Gauge.builder("notas.summary.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Proporción de listados servidos desde la caché")
+                .register(registry);
+        Gauge.builder("notas.summary.cache.weight", cache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .description("Bytes aproximados ocupados por los resúmenes cacheados")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    // La marca de demasiadas notas no guarda resúmenes: no hay nada que actualizar ni que recargar.
+    // Si un alta supera maxNotasPorUsuario, la entrada pasa a ser la marca, igual que al cargarla.
+    private void actualizar(Long usuarioId, long cambio, UnaryOperator<ResumenesUsuario> actualizacion) {
+        TrasCommit.ejecutar(() -> cache.asMap().computeIfPresent(usuarioId, (id, entrada) -> {
+            if (entrada.valor().demasiadas) {
+                return entrada;
+            }
+            EntradaVersionada<ResumenesUsuario> nueva = entrada.aplicar(cambio, actualizacion);
+            return nueva != null && nueva.valor().ids.length > maxNotasPorUsuario
+                    ? new EntradaVersionada<>(nueva.cambio(), ResumenesUsuario.DEMASIADAS) : nueva;
+        }));
+    }
+
+    // El cambio se lee antes que las notas, así que la entrada incluye como mínimo todos los cambios hasta él.
+    private EntradaVersionada<ResumenesUsuario> cargar(Long usuarioId) {
+        long cambio = usuarioRepository.findVersionNotasById(usuarioId).orElse(0L);
+        List<NotaSummary> filas = notaRepository.findPaginaPorUsuario(usuarioId, 0L,
+                Limit.of(maxNotasPorUsuario + 1));
+        if (filas.size() > maxNotasPorUsuario) {
+            return new EntradaVersionada<>(cambio, ResumenesUsuario.DEMASIADAS);
+        }
+        long[] ids = new long[filas.size()];
+        Resumen[] resumenes = new Resumen[filas.size()];
+        for (int i = 0; i < filas.size(); i++) {
+            NotaSummary fila = filas.get(i);
+            ids[i] = fila.getId();
+            resumenes[i] = new Resumen(fila.getId(), fila.getTitulo(), fila.getPreview());
+        }
+        return new EntradaVersionada<>(cambio, new ResumenesUsuario(ids, resumenes));
+    }
+
+    // Igual que substring(contenido, 1, PREVIEW_LENGTH) en la base de datos: cuenta caracteres, no unidades UTF-16.
+    static String extracto(String contenido) {
+        if (contenido == null) {
+            return null;
+        }
+        int puntos = contenido.codePointCount(0, contenido.length());
+        if (puntos <= NotaSummary.PREVIEW_LENGTH) {
+            return contenido;
+        }
+        return contenido.substring(0, contenido.offsetByCodePoints(0, NotaSummary.PREVIEW_LENGTH));
+    }
+
+    // Resumen inmutable guardado en la caché.
+    public static final class Resumen implements NotaSummary {
+        private final Long id;
+        private final String titulo;
+        private final String preview;
+
+        Resumen(Long id, String titulo, String preview) {
+            this.id = id;
+            this.titulo = titulo;
+            this.preview = preview;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getTitulo() {
+            return titulo;
+        }
+
+        @Override
+        public String getPreview() {
+            return preview;
+        }
+
+        int bytes() {
+            return BYTES_POR_RESUMEN + 2 * ((titulo != null ? titulo.length() : 0)
+                    + (preview != null ? preview.length() : 0));
+        }
+    }
+
+    // Resúmenes de un usuario en arrays paralelos ordenados por id; nunca se modifican, cada cambio crea una copia.
+    static final class ResumenesUsuario {
+        static final ResumenesUsuario DEMASIADAS = new ResumenesUsuario(new long[0], new Resumen[0], true);
+
+        private final long[] ids;
+        private final Resumen[] resumenes;
+        private final boolean demasiadas;
+        private final int bytes;
+
+        ResumenesUsuario(long[] ids, Resumen[] resumenes) {
+            this(ids, resumenes, false);
+        }
+
+        private ResumenesUsuario(long[] ids, Resumen[] resumenes, boolean demasiadas) {
+            this.ids = ids;
+            this.resumenes = resumenes;
+            this.demasiadas = demasiadas;
+            int total = BYTES_POR_RESUMEN;
+            for (Resumen resumen : resumenes) {
+                total += resumen.bytes();
+            }
+            this.bytes = total;
+        }
+
+        List<NotaSummary> pagina(long despuesDe, int limite) {
+            int desde = Arrays.binarySearch(ids, despuesDe);
+            desde = desde >= 0 ? desde + 1 : -desde - 1;
+            int hasta = Math.min(ids.length, desde + limite);
+            return List.of(Arrays.copyOfRange(resumenes, desde, hasta));
+        }
+
+        ResumenesUsuario conResumen(Resumen resumen) {
+            if (demasiadas) {
+                return this;
+            }
+            int posicion = Arrays.binarySearch(ids, resumen.getId());
+            if (posicion >= 0) {
+                Resumen[] copia = resumenes.clone();
+                copia[posicion] = resumen;
+                return new ResumenesUsuario(ids, copia);
+            }
+            int insercion = -posicion - 1;
+            long[] nuevosIds = new long[ids.length + 1];
+            Resumen[] nuevos = new Resumen[resumenes.length + 1];
+            System.arraycopy(ids, 0, nuevosIds, 0, insercion);
+            System.arraycopy(resumenes, 0, nuevos, 0, insercion);
+            nuevosIds[insercion] = resumen.getId();
+            nuevos[insercion] = resumen;
+            System.arraycopy(ids, insercion, nuevosIds, insercion + 1, ids.length - insercion);
+            System.arraycopy(resumenes, insercion, nuevos, insercion + 1, resumenes.length - insercion);
+            return new ResumenesUsuario(nuevosIds, nuevos);
+        }
+
+        ResumenesUsuario sinNota(Long notaId) {
+            int posicion = Arrays.binarySearch(ids, notaId);
+            if (demasiadas || posicion < 0) {
+                return this;
+            }
+            long[] nuevosIds = new long[ids.length - 1];
+            Resumen[] nuevos = new Resumen[resumenes.length - 1];
+            System.arraycopy(ids, 0, nuevosIds, 0, posicion);
+            System.arraycopy(resumenes, 0, nuevos, 0, posicion);
+            System.arraycopy(ids, posicion + 1, nuevosIds, posicion, ids.length - posicion - 1);
+            System.arraycopy(resumenes, posicion + 1, nuevos, posicion, resumenes.length - posicion - 1);
+            return new ResumenesUsuario(nuevosIds, nuevos);
+        }
+    }
+}
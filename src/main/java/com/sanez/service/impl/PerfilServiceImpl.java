@@ -11,12 +11,19 @@ import com.sanez.repository.NotaRepository;
 import com.sanez.repository.PerfilRepository;
 import com.sanez.repository.UsuarioRepository;
 import com.sanez.security.service.CustomUserDetails;
+import com.sanez.security.service.RefreshTokenService;
+import com.sanez.security.service.TokenVersionCache;
+import com.sanez.security.service.UserDetailsCache;
 import com.sanez.service.PerfilService;
 import jakarta.transaction.Transactional;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Service
 @Transactional
 public class PerfilServiceImpl implements PerfilService {
@@ -26,28 +33,54 @@ public class PerfilServiceImpl implements PerfilService {
     private final PerfilMapper perfilMapper;
     private final NotaRepository notaRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
+    private final RefreshTokenService refreshTokenService;
+    private final UserDetailsCache userDetailsCache;
+    private final SingleFlight singleFlight;
 
     public PerfilServiceImpl
             (PerfilRepository perfilRepository,
              UsuarioRepository usuarioRepository,
              PerfilMapper perfilMapper,
              NotaRepository notaRepository,
-             PasswordEncoder passwordEncoder)
+             PasswordEncoder passwordEncoder,
+             TokenVersionCache tokenVersionCache,
+             RefreshTokenService refreshTokenService,
+             UserDetailsCache userDetailsCache,
+             SingleFlight singleFlight)
     {
         this.perfilRepository = perfilRepository;
         this.usuarioRepository = usuarioRepository;
         this.perfilMapper = perfilMapper;
         this.notaRepository = notaRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionCache = tokenVersionCache;
+        this.refreshTokenService = refreshTokenService;
+        this.userDetailsCache = userDetailsCache;
+        this.singleFlight = singleFlight;
     }
 
 
+    // Las lecturas del perfil no abren transacción (cada consulta usa la del repositorio) para que las
+    // peticiones idénticas simultáneas esperen en SingleFlight sin retener una conexión.
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     public PerfilResponseDTO obtenerMiPerfil() {
         Long usuarioId = obtenerIdUsuarioAutenticado();
-        Perfil perfil = validarYObtenerPerfilPorUsuarioId(usuarioId);
+        return singleFlight.ejecutar(usuarioId, "perfil", () -> perfilMapper.toResponseDTO(
+                perfilRepository.findConFavoritasByUsuarioId(usuarioId)
+                        .orElseThrow(() -> new RecursoNoEncontradoException("Perfil no encontrado"))));
+    }
 
-        return perfilMapper.toResponseDTO(perfil);
+    // ETag del perfil a partir de su id y su @Version, con una sola consulta por clave
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public String obtenerEtagPerfil() {
+        Long usuarioId = obtenerIdUsuarioAutenticado();
+        PerfilRepository.PerfilVersion perfil = singleFlight.ejecutar(usuarioId, "perfil.etag",
+                () -> perfilRepository.findVersionByUsuarioId(usuarioId)
+                        .orElseThrow(() -> new RecursoNoEncontradoException("Perfil no encontrado")));
+        return "\"perfil-" + perfil.getId() + "-" + perfil.getVersion() + "\"";
     }
 
     @Override
@@ -56,34 +89,63 @@ public class PerfilServiceImpl implements PerfilService {
         Perfil perfil = validarYObtenerPerfilPorUsuarioId(usuarioId);
 
         perfilMapper.updateFromRequestDTO(perfilRequestDTO, perfil);
-        perfilRepository.save(perfil);
+        // Flush para que la respuesta lleve la @Version ya incrementada.
+        perfilRepository.saveAndFlush(perfil);
+        singleFlight.olvidar(usuarioId);
 
         return perfilMapper.toResponseDTO(perfil);
     }
 
+    // Las favoritas se escriben con sentencias de una fila (o una sentencia por lote) sin cargar el perfil
+    // ni su colección; el perfil solo recibe el incremento de versión.
     @Override
     public void agregarNotaFavorita(Long notaId) {
+        agregarNotasFavoritas(List.of(notaId));
+    }
 
+    @Override
+    public void removerNotaFavorita(Long notaId) {
         Long usuarioId = obtenerIdUsuarioAutenticado();
-        Perfil perfil = validarYObtenerPerfilPorUsuarioId(usuarioId);
-
-        validarNotaPerteneceAlUsuario(notaId, usuarioId);
+        Long perfilId = obtenerIdPerfil(usuarioId);
 
-        if (!perfil.getNotasFavoritas().contains(notaId)) {
-            perfil.getNotasFavoritas().add(notaId);
-            perfilRepository.save(perfil);
+        if (perfilRepository.eliminarFavoritas(perfilId, List.of(notaId)) > 0) {
+            registrarCambioFavoritas(perfilId, usuarioId);
+        } else {
+            // No era favorita: se mantiene el 404 si la nota no existe o no es del usuario.
+            validarNotaPerteneceAlUsuario(notaId, usuarioId);
         }
     }
 
+    // Añade varias notas a favoritas con un único INSERT ... SELECT que solo inserta las que faltan.
+    // Si alguna nota no existe o no es del usuario se responde 404 y no se añade ninguna.
+    // La fila del perfil se bloquea antes del INSERT para que las altas simultáneas se apliquen de una en una.
     @Override
-    public void removerNotaFavorita(Long notaId) {
+    public void agregarNotasFavoritas(List<Long> notaIds) {
         Long usuarioId = obtenerIdUsuarioAutenticado();
-        Perfil perfil = validarYObtenerPerfilPorUsuarioId(usuarioId);
+        Long perfilId = perfilRepository.bloquearIdByUsuarioId(usuarioId)
+                .orElseThrow(() -> new RecursoNoEncontradoException("Perfil no encontrado"));
+        Set<Long> ids = new HashSet<>(notaIds);
+
+        int insertadas = perfilRepository.agregarFavoritas(perfilId, usuarioId, ids);
+        if (insertadas < ids.size()) {
+            // Faltan filas: o ya eran favoritas o alguna nota es ajena (la excepción revierte el INSERT).
+            validarNotasPertenecenAlUsuario(ids, usuarioId);
+        }
+        if (insertadas > 0) {
+            registrarCambioFavoritas(perfilId, usuarioId);
+        }
+    }
 
-        validarNotaPerteneceAlUsuario(notaId, usuarioId);
+    // Quita varias notas de favoritas con un único DELETE; las que no eran favoritas se ignoran.
+    // No se comprueba la propiedad: solo se borran filas del perfil del usuario.
+    @Override
+    public void removerNotasFavoritas(List<Long> notaIds) {
+        Long usuarioId = obtenerIdUsuarioAutenticado();
+        Long perfilId = obtenerIdPerfil(usuarioId);
 
-        perfil.getNotasFavoritas().remove(notaId);
-        perfilRepository.save(perfil);
+        if (perfilRepository.eliminarFavoritas(perfilId, new HashSet<>(notaIds)) > 0) {
+            registrarCambioFavoritas(perfilId, usuarioId);
+        }
     }
 
     @Override
@@ -106,7 +168,16 @@ public class PerfilServiceImpl implements PerfilService {
 
         // Encriptar y actualizar la contraseña
         usuario.setPassword(passwordEncoder.encode(request.getNuevaPassword()));
+
+        // Invalida los JWT emitidos con la contraseña anterior
+        usuario.setTokenVersion(usuario.getTokenVersion() + 1);
         usuarioRepository.save(usuario);
+        String email = usuario.getEmail();
+        TrasCommit.ejecutar(() -> {
+            tokenVersionCache.invalidate(usuarioId);
+            userDetailsCache.invalidate(email);
+        });
+        refreshTokenService.revocarTodos(usuarioId);
     }
 
 
@@ -115,10 +186,27 @@ public class PerfilServiceImpl implements PerfilService {
     // ============================================
 
     private void validarNotaPerteneceAlUsuario(Long notaId, Long usuarioId) {
-        notaRepository.findById(notaId)
-                .filter(nota -> nota.getUsuario().getId().equals(usuarioId))
-                .orElseThrow(() -> new RecursoNoEncontradoException(
-                        "Nota no encontrada o no pertenece al usuario."));
+        if (!notaRepository.existsByIdAndUsuarioId(notaId, usuarioId)) {
+            throw new RecursoNoEncontradoException("Nota no encontrada o no pertenece al usuario.");
+        }
+    }
+
+    private void validarNotasPertenecenAlUsuario(Set<Long> notaIds, Long usuarioId) {
+        if (notaRepository.countByUsuarioIdAndIdIn(usuarioId, notaIds) != notaIds.size()) {
+            throw new RecursoNoEncontradoException("Nota no encontrada o no pertenece al usuario.");
+        }
+    }
+
+    private Long obtenerIdPerfil(Long usuarioId) {
+        return perfilRepository.findVersionByUsuarioId(usuarioId)
+                .orElseThrow(() -> new RecursoNoEncontradoException("Perfil no encontrado"))
+                .getId();
+    }
+
+    // Las sentencias nativas no tocan @Version: se incrementa para que cambie el ETag del perfil.
+    private void registrarCambioFavoritas(Long perfilId, Long usuarioId) {
+        perfilRepository.incrementarVersion(perfilId);
+        singleFlight.olvidar(usuarioId);
     }
 
     private Perfil validarYObtenerPerfilPorUsuarioId(Long usuarioId){
@@ -0,0 +1,39 @@
+package com.sanez.service.impl;
+
+import com.sanez.repository.NotaEliminadaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Purga las lápidas de notas eliminadas (notas_eliminadas) más antiguas que la retención configurada.
+// Antes de borrarlas registra en usuarios.cambio_purgado el último cambio purgado de cada usuario, de modo que
+// una sincronización con un "since" anterior responde resincronizar en lugar de omitir esos borrados.
+@Service
+@Slf4j
+public class PurgaNotasEliminadas {
+
+    private final NotaEliminadaRepository notaEliminadaRepository;
+    private final Duration retencion;
+
+    public PurgaNotasEliminadas(NotaEliminadaRepository notaEliminadaRepository,
+                                @Value("${notas.eliminadas.retencion-dias:30}") long retencionDias) {
+        this.notaEliminadaRepository = notaEliminadaRepository;
+        this.retencion = Duration.ofDays(retencionDias);
+    }
+
+    @Scheduled(fixedDelayString = "${notas.eliminadas.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgar() {
+        Instant limite = Instant.now().minus(retencion);
+        notaEliminadaRepository.registrarHorizontePurga(limite);
+        int eliminadas = notaEliminadaRepository.deleteAnteriores(limite);
+        if (eliminadas > 0) {
+            log.info("Purgadas {} lápidas de notas eliminadas anteriores a {}", eliminadas, limite);
+        }
+    }
+}
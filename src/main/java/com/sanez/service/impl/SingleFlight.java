@@ -0,0 +1,91 @@
+package com.sanez.service.impl;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Agrupa lecturas idénticas concurrentes (mismo usuario y operación): la primera petición ejecuta la lectura
+// y las que llegan mientras está en curso esperan su CompletableFuture en lugar de repetir la consulta.
+// La entrada se libera al terminar, así que no guarda resultados: no es una caché.
+// Quien llama no debe tener una transacción abierta, o cada espera retendría una conexión del pool.
+// Solo para lecturas que consultan la base de datos: las que salen de una caché Caffeine ya se agrupan en cache.get.
+@Component
+public class SingleFlight implements MeterBinder {
+
+    private final ConcurrentMap<Clave, CompletableFuture<Object>> enVuelo = new ConcurrentHashMap<>();
+    private final LongAdder ejecutadas = new LongAdder();
+    private final LongAdder agrupadas = new LongAdder();
+
+    // Ejecuta la lectura o se une a la que ya está en curso para la misma clave.
+    // Las excepciones de la lectura llegan a todas las peticiones agrupadas.
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(Long usuarioId, String operacion, Supplier<T> lectura) {
+        Clave clave = new Clave(usuarioId, operacion);
+        CompletableFuture<Object> propio = new CompletableFuture<>();
+        CompletableFuture<Object> enCurso = enVuelo.putIfAbsent(clave, propio);
+        if (enCurso != null) {
+            agrupadas.increment();
+            return (T) esperar(enCurso);
+        }
+
+        ejecutadas.increment();
+        try {
+            T resultado = lectura.get();
+            propio.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enVuelo.remove(clave, propio);
+        }
+    }
+
+    // Tras una escritura del usuario, las lecturas que empiecen después del commit no se unen a una
+    // lectura lanzada antes (que podría no ver el cambio); las que ya esperan reciben su resultado.
+    public void olvidar(Long usuarioId) {
+        TrasCommit.ejecutar(() -> enVuelo.keySet().removeIf(clave -> clave.usuarioId().equals(usuarioId)));
+    }
+
+    // Publica las lecturas ejecutadas y agrupadas, y las que están en curso.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("lecturas.singleflight", ejecutadas, LongAdder::sum)
+                .tag("resultado", "ejecutada")
+                .description("Lecturas que consultaron la base de datos")
+                .register(registry);
+        FunctionCounter.builder("lecturas.singleflight", agrupadas, LongAdder::sum)
+                .tag("resultado", "agrupada")
+                .description("Lecturas servidas por otra idéntica en curso")
+                .register(registry);
+        Gauge.builder("lecturas.singleflight.en.curso", enVuelo, ConcurrentMap::size)
+                .description("Lecturas en curso")
+                .register(registry);
+    }
+
+    private static Object esperar(CompletableFuture<Object> enCurso) {
+        try {
+            return enCurso.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private record Clave(Long usuarioId, String operacion) {
+    }
+}
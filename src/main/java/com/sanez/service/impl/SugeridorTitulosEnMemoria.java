@@ -0,0 +1,144 @@
+package com.sanez.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sanez.dto.nota.NotaSugerenciaDTO;
+import com.sanez.repository.NotaRepository;
+import com.sanez.repository.UsuarioRepository;
+import com.sanez.service.SugeridorTitulos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Autocompletado de títulos en memoria: una vez cargados los títulos del usuario, cada pulsación se
+ * resuelve con una búsqueda binaria sobre un array ordenado, sin ir a la base de datos.
+ * Si el prefijo no llena el límite se completa con títulos parecidos por trigramas (títulos mal escritos).
+ * Las entradas caducan a los expira-minutos de cargarse (no de usarse), así que las escrituras hechas en otro
+ * nodo se ven como mucho con ese retraso.
+ */
+@Service
+public class SugeridorTitulosEnMemoria implements SugeridorTitulos, MeterBinder {
+
+    // Por debajo de esta longitud los trigramas casan con casi todo y no aportan.
+    private static final int MIN_LONGITUD_SIMILITUD = 3;
+
+    private final NotaRepository notaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<Long, EntradaVersionada<TitulosUsuario>> usuarios;
+
+    public SugeridorTitulosEnMemoria(NotaRepository notaRepository,
+                                     UsuarioRepository usuarioRepository,
+                                     @Value("${notas.suggest.max-usuarios:5000}") long maxUsuarios,
+                                     @Value("${notas.suggest.expira-minutos:30}") long expiraMinutos) {
+        this.notaRepository = notaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(maxUsuarios)
+                .expireAfterWrite(Duration.ofMinutes(expiraMinutos))
+                .recordStats()
+                .build();
+    }
+
+    // Sin @Transactional a propósito: con el índice cargado no se abre transacción ni se pide conexión.
+    @Override
+    public List<NotaSugerenciaDTO> sugerir(Long usuarioId, String prefijo, int limite) {
+        IndiceTitulos indice = usuarios.get(usuarioId, this::cargar).valor().indice();
+
+        List<IndiceTitulos.Sugerencia> sugerencias = new ArrayList<>(indice.porPrefijo(prefijo, limite));
+        if (sugerencias.size() < limite && prefijo.strip().length() >= MIN_LONGITUD_SIMILITUD) {
+            Set<Long> incluidas = new HashSet<>();
+            sugerencias.forEach(s -> incluidas.add(s.getNotaId()));
+            for (IndiceTitulos.Sugerencia parecida : indice.porSimilitud(prefijo, limite)) {
+                if (sugerencias.size() == limite) {
+                    break;
+                }
+                if (incluidas.add(parecida.getNotaId())) {
+                    sugerencias.add(parecida);
+                }
+            }
+        }
+        return sugerencias.stream()
+                .map(s -> new NotaSugerenciaDTO(s.getNotaId(), s.getTitulo()))
+                .toList();
+    }
+
+    // Como en BuscadorNotasEnMemoria: tras el commit, en orden de cambio y solo si los títulos ya están cargados.
+    @Override
+    public void notaGuardada(Long usuarioId, long cambio, Long notaId, String titulo) {
+        TrasCommit.ejecutar(() -> usuarios.asMap().computeIfPresent(usuarioId, (id, entrada) ->
+                entrada.aplicar(cambio, titulos -> {
+                    titulos.guardar(notaId, titulo);
+                    return titulos;
+                })));
+    }
+
+    @Override
+    public void notaEliminada(Long usuarioId, long cambio, Long notaId) {
+        TrasCommit.ejecutar(() -> usuarios.asMap().computeIfPresent(usuarioId, (id, entrada) ->
+                entrada.aplicar(cambio, titulos -> {
+                    titulos.eliminar(notaId);
+                    return titulos;
+                })));
+    }
+
+    @Override
+    public void notasModificadas(Long usuarioId) {
+        TrasCommit.ejecutar(() -> usuarios.invalidate(usuarioId));
+    }
+
+    // Publica los contadores en Micrometer con name=notas.suggest.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, usuarios, "notas.suggest");
+    }
+
+    // El contador de cambios se lee antes que los títulos (ver EntradaVersionada).
+    private EntradaVersionada<TitulosUsuario> cargar(Long usuarioId) {
+        long cambio = usuarioRepository.findVersionNotasById(usuarioId).orElse(0L);
+        TitulosUsuario titulos = new TitulosUsuario();
+        notaRepository.findTitulosByUsuarioId(usuarioId)
+                .forEach(nota -> titulos.guardar(nota.getId(), nota.getTitulo()));
+        return new EntradaVersionada<>(cambio, titulos);
+    }
+
+    // Títulos de un usuario; el índice inmutable se reconstruye en la primera lectura tras una escritura.
+    private static final class TitulosUsuario {
+        private final Map<Long, String> titulos = new HashMap<>();
+        private volatile IndiceTitulos indice;
+
+        synchronized void guardar(Long notaId, String titulo) {
+            titulos.put(notaId, titulo);
+            indice = null;
+        }
+
+        synchronized void eliminar(Long notaId) {
+            if (titulos.remove(notaId) != null) {
+                indice = null;
+            }
+        }
+
+        IndiceTitulos indice() {
+            IndiceTitulos actual = indice;
+            if (actual != null) {
+                return actual;
+            }
+            synchronized (this) {
+                if (indice == null) {
+                    indice = IndiceTitulos.construir(titulos);
+                }
+                return indice;
+            }
+        }
+    }
+}
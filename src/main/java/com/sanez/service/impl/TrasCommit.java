@@ -0,0 +1,26 @@
+package com.sanez.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Ejecuta una acción en memoria (invalidar o actualizar una caché) solo cuando la transacción actual confirma.
+// Hacerlo antes del commit deja una ventana en la que otra petición vuelve a cachear el estado anterior;
+// si la transacción se revierte, la acción no se ejecuta. Sin transacción activa se ejecuta en el acto.
+final class TrasCommit {
+
+    private TrasCommit() {
+    }
+
+    static void ejecutar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -8,6 +8,8 @@ import com.sanez.mapper.UsuarioMapper;
 import com.sanez.model.Perfil;
 import com.sanez.model.Usuario;
 import com.sanez.repository.UsuarioRepository;
+import com.sanez.security.service.TokenVersionCache;
+import com.sanez.security.service.UserDetailsCache;
 import com.sanez.service.UsuarioService;
 import jakarta.transaction.Transactional;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,11 +24,17 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
+    private final UserDetailsCache userDetailsCache;
 
     public UsuarioServiceImpl(UsuarioRepository usuarioRepository,
-                              PasswordEncoder passwordEncoder) {
+                              PasswordEncoder passwordEncoder,
+                              TokenVersionCache tokenVersionCache,
+                              UserDetailsCache userDetailsCache) {
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionCache = tokenVersionCache;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -69,5 +77,10 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new RecursoNoEncontradoException("Usuario no encontrado"));
         usuarioRepository.delete(usuario);
+        String email = usuario.getEmail();
+        TrasCommit.ejecutar(() -> {
+            tokenVersionCache.invalidate(id);
+            userDetailsCache.invalidate(email);
+        });
     }
 }
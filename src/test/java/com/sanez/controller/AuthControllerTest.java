@@ -2,12 +2,18 @@ package com.sanez.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sanez.dto.auth.LoginRequest;
+import com.sanez.dto.auth.RefreshTokenRequest;
 import com.sanez.dto.auth.ResetPasswordRequest;
 import com.sanez.dto.usuario.UsuarioRequestDTO;
 import com.sanez.dto.usuario.UsuarioResponseDTO;
 import com.sanez.exception.EmailYaRegistradoException;
 import com.sanez.exception.RecursoNoEncontradoException;
 import com.sanez.security.jwt.JwtUtil;
+import com.sanez.security.jwt.VerifiedJwt;
+import com.sanez.exception.AccesoNoAutorizadoException;
+import com.sanez.security.service.RefreshTokenService;
+import com.sanez.security.service.TokenRevocationService;
+import com.sanez.security.service.TokenVersionCache;
 import com.sanez.service.AuthService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,9 +28,13 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Date;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -50,6 +60,18 @@ class AuthControllerTest {
     @MockitoBean
     private AuthService authService;
 
+    @MockitoBean
+    private TokenVersionCache tokenVersionCache;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockitoBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
     // ==================== TESTS DE SIGNUP ====================
 
     @Test
@@ -171,6 +193,85 @@ class AuthControllerTest {
         verify(jwtUtil, never()).generateToken(any(UserDetails.class));
     }
 
+    // ==================== TESTS DE REFRESH ====================
+
+    @Test
+    @DisplayName("POST /refresh - Token de refresco válido retorna 200 con tokens nuevos")
+    void refresh_tokenValido_retorna200ConTokensNuevos() throws Exception {
+        // Arrange
+        UserDetails userDetails = User.builder()
+                .username("test@example.com")
+                .password("encodedPassword")
+                .authorities(new SimpleGrantedAuthority("ROLE_USER"))
+                .build();
+
+        when(refreshTokenService.rotar("refresh-viejo"))
+                .thenReturn(new RefreshTokenService.Rotacion("test@example.com", "refresh-nuevo"));
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(userDetails);
+        when(jwtUtil.generateToken(userDetails)).thenReturn("jwt-token-456");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh-viejo"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("jwt-token-456"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-nuevo"));
+
+        verify(refreshTokenService, times(1)).rotar("refresh-viejo");
+    }
+
+    @Test
+    @DisplayName("POST /refresh - Token de refresco reutilizado retorna 401")
+    void refresh_tokenReutilizado_retorna401() throws Exception {
+        // Arrange
+        when(refreshTokenService.rotar("refresh-usado"))
+                .thenThrow(new AccesoNoAutorizadoException("Token de refresco inválido"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh-usado"))))
+                .andExpect(status().isUnauthorized());
+
+        verify(jwtUtil, never()).generateToken(any(UserDetails.class));
+    }
+
+    // ==================== TESTS DE SIGNOUT ====================
+
+    @Test
+    @DisplayName("POST /signout - Token válido se revoca y retorna 200")
+    void signout_tokenValido_retorna200() throws Exception {
+        // Arrange
+        VerifiedJwt verified = new VerifiedJwt("jti-123", "test@example.com", 1L, List.of("ROLE_USER"),
+                new Date(System.currentTimeMillis() + 60000), 0);
+        when(jwtUtil.getJwtFromHeader(any())).thenReturn("jwt-token-123");
+        when(jwtUtil.verifyToken("jwt-token-123")).thenReturn(verified);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/signout")
+                        .header("Authorization", "Bearer jwt-token-123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mensaje").exists());
+
+        verify(tokenRevocationService, times(1)).revoke(verified);
+        verify(refreshTokenService, times(1)).revocarTodos(1L);
+    }
+
+    @Test
+    @DisplayName("POST /signout - Sin token retorna 401")
+    void signout_sinToken_retorna401() throws Exception {
+        // Arrange
+        when(jwtUtil.getJwtFromHeader(any())).thenReturn(null);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/signout"))
+                .andExpect(status().isUnauthorized());
+
+        verify(tokenRevocationService, never()).revoke(any());
+        verify(refreshTokenService, never()).revocarTodos(any());
+    }
+
     // ==================== TESTS DE VERIFY ====================
 
     @Test
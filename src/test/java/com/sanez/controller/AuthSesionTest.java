@@ -0,0 +1,88 @@
+package com.sanez.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sanez.dto.auth.LoginRequest;
+import com.sanez.dto.auth.RefreshTokenRequest;
+import com.sanez.model.Usuario;
+import com.sanez.repository.UsuarioRepository;
+import com.sanez.security.service.RefreshTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Flujo completo con la cadena de seguridad real: login, cierre de sesión y canje del token de refresco.
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("AuthController - Tests de Sesión")
+class AuthSesionTest {
+
+    private static final String PASSWORD = "Password123!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        Usuario nuevo = new Usuario();
+        nuevo.setEmail("sesion-" + UUID.randomUUID() + "@example.com");
+        nuevo.setPassword(passwordEncoder.encode(PASSWORD));
+        nuevo.setEnabled(true);
+        usuario = usuarioRepository.save(nuevo);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenService.revocarTodos(usuario.getId());
+        usuarioRepository.deleteById(usuario.getId());
+    }
+
+    @Test
+    @DisplayName("POST /refresh - Tras cerrar sesión el token de refresco retorna 401")
+    void refresh_trasSignout_retorna401() throws Exception {
+        // Arrange
+        JsonNode login = objectMapper.readTree(mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(usuario.getEmail(), PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        String refresh = objectMapper.writeValueAsString(new RefreshTokenRequest(login.get("refreshToken").asText()));
+
+        // Act
+        mockMvc.perform(post("/api/auth/signout")
+                        .header("Authorization", "Bearer " + login.get("token").asText()))
+                .andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refresh))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,136 @@
+package com.sanez.controller;
+
+import com.sanez.dto.nota.NotaPaginaDTO;
+import com.sanez.dto.nota.NotaResponseDTO;
+import com.sanez.dto.nota.NotaUpdateDTO;
+import com.sanez.security.jwt.JwtUtil;
+import com.sanez.security.service.TokenRevocationService;
+import com.sanez.security.service.TokenVersionCache;
+import com.sanez.service.NotaService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = NotaController.class)
+@Import(TestSecurityConfig.class)
+@DisplayName("NotaController - Tests de Integración")
+class NotaControllerTest {
+
+    private static final String ETAG = "\"notas-1-7\"";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private NotaService notaService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private TokenVersionCache tokenVersionCache;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    // ==================== TESTS DE GET CONDICIONAL ====================
+
+    @Test
+    @DisplayName("GET /api/notas - Sin If-None-Match retorna 200 con ETag")
+    void listar_sinIfNoneMatch_retorna200ConEtag() throws Exception {
+        // Arrange
+        when(notaService.obtenerVersionNotas()).thenReturn(7L);
+        when(notaService.obtenerEtagNotas(7L)).thenReturn(ETAG);
+        when(notaService.obtenerNotasPorUsuario(null, 50, 7L)).thenReturn(new NotaPaginaDTO(List.of(), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/notas"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(jsonPath("$.notas").isArray());
+    }
+
+    @Test
+    @DisplayName("GET /api/notas - ETag vigente retorna 304 sin consultar las notas")
+    void listar_etagVigente_retorna304SinCargarNotas() throws Exception {
+        // Arrange
+        when(notaService.obtenerVersionNotas()).thenReturn(7L);
+        when(notaService.obtenerEtagNotas(7L)).thenReturn(ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/notas").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().string(""));
+
+        verify(notaService, never()).obtenerNotasPorUsuario(any(), anyInt(), anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /api/notas - ETag obsoleto retorna 200 con el ETag nuevo")
+    void listar_etagObsoleto_retorna200() throws Exception {
+        // Arrange
+        when(notaService.obtenerVersionNotas()).thenReturn(7L);
+        when(notaService.obtenerEtagNotas(7L)).thenReturn(ETAG);
+        when(notaService.obtenerNotasPorUsuario(null, 50, 7L)).thenReturn(new NotaPaginaDTO(List.of(), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/notas").header(HttpHeaders.IF_NONE_MATCH, "\"notas-1-6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+    }
+
+    // ==================== TESTS DE IF-MATCH ====================
+
+    @Test
+    @DisplayName("PATCH /api/notas/{id} - If-Match vigente pasa la versión al servicio y devuelve el nuevo ETag")
+    void editar_ifMatch_pasaVersionYDevuelveEtag() throws Exception {
+        // Arrange
+        NotaResponseDTO editada = new NotaResponseDTO();
+        editada.setId(10L);
+        editada.setVersion(4L);
+        when(notaService.editarNota(eq(10L), any(NotaUpdateDTO.class), eq(3L))).thenReturn(editada);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/notas/10")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Editada\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/notas/{id} - If-Match débil retorna 412 sin llamar al servicio")
+    void editar_ifMatchDebil_retorna412() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/notas/10")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Editada\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(notaService, never()).editarNota(any(), any(), any());
+    }
+}
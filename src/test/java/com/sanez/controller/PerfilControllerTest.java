@@ -0,0 +1,174 @@
+package com.sanez.controller;
+
+import com.sanez.dto.perfil.PerfilResponseDTO;
+import com.sanez.exception.RecursoNoEncontradoException;
+import com.sanez.security.jwt.JwtUtil;
+import com.sanez.security.service.TokenRevocationService;
+import com.sanez.security.service.TokenVersionCache;
+import com.sanez.service.PerfilService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = PerfilController.class)
+@Import(TestSecurityConfig.class)
+@DisplayName("PerfilController - Tests de Integración")
+class PerfilControllerTest {
+
+    private static final String ETAG = "\"perfil-1-3\"";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PerfilService perfilService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private TokenVersionCache tokenVersionCache;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    // ==================== TESTS DE GET CONDICIONAL ====================
+
+    @Test
+    @DisplayName("GET /api/perfiles/mi-perfil - Sin If-None-Match retorna 200 con ETag")
+    void miPerfil_sinIfNoneMatch_retorna200ConEtag() throws Exception {
+        // Arrange
+        when(perfilService.obtenerEtagPerfil()).thenReturn(ETAG);
+        when(perfilService.obtenerMiPerfil()).thenReturn(new PerfilResponseDTO(1L, "Test", List.of(5L), 3L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/perfiles/mi-perfil"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(jsonPath("$.notasFavoritas[0]").value(5));
+    }
+
+    @Test
+    @DisplayName("GET /api/perfiles/mi-perfil - ETag vigente retorna 304 sin cargar el perfil")
+    void miPerfil_etagVigente_retorna304SinCargarPerfil() throws Exception {
+        // Arrange
+        when(perfilService.obtenerEtagPerfil()).thenReturn(ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/perfiles/mi-perfil").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().string(""));
+
+        verify(perfilService, never()).obtenerMiPerfil();
+    }
+
+    @Test
+    @DisplayName("GET /api/perfiles/mi-perfil - ETag obsoleto retorna 200 con el ETag nuevo")
+    void miPerfil_etagObsoleto_retorna200() throws Exception {
+        // Arrange
+        when(perfilService.obtenerEtagPerfil()).thenReturn(ETAG);
+        when(perfilService.obtenerMiPerfil()).thenReturn(new PerfilResponseDTO(1L, "Test", List.of(), 3L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/perfiles/mi-perfil").header(HttpHeaders.IF_NONE_MATCH, "\"perfil-1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+    }
+
+    @Test
+    @DisplayName("GET /api/perfiles/mi-perfil - El ETag de un 200 sale de la versión del perfil cargado")
+    void miPerfil_perfilCargadoAnterior_etagDelPerfilCargado() throws Exception {
+        // Arrange - el perfil servido es anterior a la versión que leyó el ETag
+        when(perfilService.obtenerEtagPerfil()).thenReturn("\"perfil-1-4\"");
+        when(perfilService.obtenerMiPerfil()).thenReturn(new PerfilResponseDTO(1L, "Test", List.of(), 3L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/perfiles/mi-perfil"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, ETAG));
+    }
+
+    // ==================== TESTS DE FAVORITAS EN LOTE ====================
+
+    @Test
+    @DisplayName("POST /api/perfiles/favoritas - Lista válida retorna 204")
+    void agregarFavoritas_listaValida_retorna204() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/perfiles/favoritas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"notaIds\":[1,2,3]}"))
+                .andExpect(status().isNoContent());
+
+        verify(perfilService).agregarNotasFavoritas(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("POST /api/perfiles/favoritas - Nota ajena retorna 404")
+    void agregarFavoritas_notaAjena_retorna404() throws Exception {
+        // Arrange
+        doThrow(new RecursoNoEncontradoException("Nota no encontrada o no pertenece al usuario."))
+                .when(perfilService).agregarNotasFavoritas(List.of(1L, 99L));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/perfiles/favoritas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"notaIds\":[1,99]}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/perfiles/favoritas - Lista vacía retorna 400 sin llamar al servicio")
+    void agregarFavoritas_listaVacia_retorna400() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/perfiles/favoritas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"notaIds\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(perfilService, never()).agregarNotasFavoritas(any());
+    }
+
+    @Test
+    @DisplayName("DELETE /api/perfiles/favoritas - Lista válida retorna 204")
+    void removerFavoritas_listaValida_retorna204() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete("/api/perfiles/favoritas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"notaIds\":[4,5]}"))
+                .andExpect(status().isNoContent());
+
+        verify(perfilService).removerNotasFavoritas(List.of(4L, 5L));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/perfiles/favoritas/{id} - Nota ajena retorna 404")
+    void removerFavorita_notaAjena_retorna404() throws Exception {
+        // Arrange
+        doThrow(new RecursoNoEncontradoException("Nota no encontrada o no pertenece al usuario."))
+                .when(perfilService).removerNotaFavorita(99L);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/perfiles/favoritas/99"))
+                .andExpect(status().isNotFound());
+    }
+}
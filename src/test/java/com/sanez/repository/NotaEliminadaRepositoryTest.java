@@ -0,0 +1,87 @@
+package com.sanez.repository;
+
+import com.sanez.model.NotaEliminada;
+import com.sanez.model.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("NotaEliminadaRepository - Tests de Integración")
+class NotaEliminadaRepositoryTest {
+
+    @Autowired
+    private NotaEliminadaRepository notaEliminadaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Usuario usuario;
+    private Usuario otroUsuario;
+    private Instant ahora;
+
+    @BeforeEach
+    void setUp() {
+        usuario = entityManager.persist(crearUsuario("test@example.com"));
+        otroUsuario = entityManager.persist(crearUsuario("otro@example.com"));
+        ahora = Instant.now();
+        Instant antigua = ahora.minus(Duration.ofDays(40));
+        entityManager.persist(new NotaEliminada(101L, usuario, 2L, antigua));
+        entityManager.persist(new NotaEliminada(102L, usuario, 5L, antigua));
+        entityManager.persist(new NotaEliminada(103L, usuario, 8L, ahora));
+        entityManager.persist(new NotaEliminada(201L, otroUsuario, 3L, ahora));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("findEliminadas - Devuelve las lápidas del rango en orden de cambio y respeta el límite")
+    void findEliminadas_rangoOrdenadoYLimitado() {
+        // Act
+        List<NotaEliminada> todas = notaEliminadaRepository.findEliminadas(usuario.getId(), 0L, 8L, Limit.unlimited());
+        List<NotaEliminada> primera = notaEliminadaRepository.findEliminadas(usuario.getId(), 2L, 8L, Limit.of(1));
+
+        // Assert
+        assertEquals(List.of(101L, 102L, 103L), todas.stream().map(NotaEliminada::getNotaId).toList());
+        assertEquals(List.of(102L), primera.stream().map(NotaEliminada::getNotaId).toList());
+    }
+
+    @Test
+    @DisplayName("Purga - Borra las lápidas antiguas y registra el último cambio purgado de cada usuario")
+    void purga_registraHorizonteYBorraAntiguas() {
+        // Arrange
+        Instant limite = ahora.minus(Duration.ofDays(30));
+
+        // Act
+        notaEliminadaRepository.registrarHorizontePurga(limite);
+        int eliminadas = notaEliminadaRepository.deleteAnteriores(limite);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(2, eliminadas);
+        assertEquals(5L, usuarioRepository.findEstadoCambiosById(usuario.getId()).orElseThrow().getCambioPurgado());
+        assertEquals(0L, usuarioRepository.findEstadoCambiosById(otroUsuario.getId()).orElseThrow().getCambioPurgado());
+        assertEquals(List.of(103L), notaEliminadaRepository.findEliminadas(usuario.getId(), 0L, 8L, Limit.unlimited())
+                .stream().map(NotaEliminada::getNotaId).toList());
+    }
+
+    private static Usuario crearUsuario(String email) {
+        Usuario nuevo = new Usuario();
+        nuevo.setEmail(email);
+        nuevo.setPassword("encodedPassword");
+        nuevo.setEnabled(true);
+        return nuevo;
+    }
+}
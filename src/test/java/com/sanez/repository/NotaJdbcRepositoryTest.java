@@ -0,0 +1,149 @@
+package com.sanez.repository;
+
+import com.sanez.dto.nota.NotaResponseDTO;
+import com.sanez.model.Nota;
+import com.sanez.model.NotaEliminada;
+import com.sanez.model.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(NotaJdbcRepository.class)
+@DisplayName("NotaJdbcRepository - Tests de Integración")
+class NotaJdbcRepositoryTest {
+
+    @Autowired
+    private NotaJdbcRepository notaJdbcRepository;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private NotaEliminadaRepository notaEliminadaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Usuario usuario;
+    private Usuario otroUsuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = entityManager.persist(crearUsuario("test@example.com"));
+        otroUsuario = entityManager.persist(crearUsuario("otro@example.com"));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("insertarLote - Inserta todas las notas y devuelve los ids en orden")
+    void insertarLote_devuelveIdsGenerados() {
+        // Act
+        List<Long> ids = notaJdbcRepository.insertarLote(usuario.getId(), 1L,
+                List.of(crearNota(null, "Nota 1", "Contenido 1"), crearNota(null, "Nota 2", "Contenido 2")));
+
+        // Assert
+        assertEquals(2, ids.size());
+        assertEquals("Nota 1", notaRepository.findById(ids.get(0)).orElseThrow().getTitulo());
+        assertEquals("Nota 2", notaRepository.findById(ids.get(1)).orElseThrow().getTitulo());
+    }
+
+    @Test
+    @DisplayName("actualizarLote/eliminarLote - Solo afectan a notas propias con la versión esperada y devuelven las filas")
+    void actualizarYEliminar_soloNotasPropias() {
+        // Arrange
+        List<Long> propias = notaJdbcRepository.insertarLote(usuario.getId(), 1L,
+                List.of(crearNota(null, "Propia 1", "Contenido"), crearNota(null, "Propia 2", "Contenido")));
+        List<Long> ajenas = notaJdbcRepository.insertarLote(otroUsuario.getId(), 1L,
+                List.of(crearNota(null, "Ajena", "Contenido")));
+
+        long version = notaRepository.findById(propias.get(0)).orElseThrow().getVersion();
+
+        // Act
+        int[] editadas = notaJdbcRepository.actualizarLote(usuario.getId(), 2L, List.of(
+                new NotaJdbcRepository.EdicionNota(propias.get(0), "Editada", null, version),
+                new NotaJdbcRepository.EdicionNota(propias.get(0), "Pisada", null, version),
+                new NotaJdbcRepository.EdicionNota(ajenas.get(0), "Intruso", null, -1L)));
+        int[] borradas = notaJdbcRepository.eliminarLote(usuario.getId(), 2L,
+                List.of(propias.get(1), ajenas.get(0)));
+        entityManager.clear();
+
+        // Assert
+        assertArrayEquals(new int[]{1, 0, 0}, editadas);
+        assertArrayEquals(new int[]{1, 0}, borradas);
+        Nota editada = notaRepository.findById(propias.get(0)).orElseThrow();
+        assertEquals("Editada", editada.getTitulo());
+        assertEquals("Contenido", editada.getContenido());
+        assertTrue(notaRepository.findById(propias.get(1)).isEmpty());
+        assertEquals("Ajena", notaRepository.findById(ajenas.get(0)).orElseThrow().getTitulo());
+        assertEquals(2L, editada.getCambio());
+        assertEquals(List.of(propias.get(1)), notaEliminadaRepository
+                .findEliminadas(usuario.getId(), 1L, 2L, Limit.unlimited()).stream().map(NotaEliminada::getNotaId).toList());
+        assertTrue(notaEliminadaRepository.findEliminadas(otroUsuario.getId(), 0L, 2L, Limit.unlimited()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("actualizarSiVersion - Devuelve la fila editada solo si la nota es del usuario y la versión coincide")
+    void actualizarSiVersion_devuelveFilaEditada() {
+        // Arrange
+        Long id = notaJdbcRepository.insertarLote(usuario.getId(), 1L,
+                List.of(crearNota(null, "Original", "Contenido"))).get(0);
+        long version = notaRepository.findById(id).orElseThrow().getVersion();
+        Instant ahora = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        // Act
+        Optional<NotaResponseDTO> primera = notaJdbcRepository.actualizarSiVersion(id, usuario.getId(), version,
+                "Editada", null, 3L, ahora);
+        Optional<NotaResponseDTO> obsoleta = notaJdbcRepository.actualizarSiVersion(id, usuario.getId(), version,
+                "Pisada", null, 4L, ahora);
+        Optional<NotaResponseDTO> ajena = notaJdbcRepository.actualizarSiVersion(id, otroUsuario.getId(), -1L,
+                "Intruso", null, 5L, ahora);
+        Optional<NotaResponseDTO> sinVersion = notaJdbcRepository.actualizarSiVersion(id, usuario.getId(), -1L,
+                null, "Nuevo contenido", 6L, ahora);
+
+        // Assert
+        NotaResponseDTO editada = primera.orElseThrow();
+        assertEquals("Editada", editada.getTitulo());
+        assertEquals("Contenido", editada.getContenido());
+        assertEquals(usuario.getId(), editada.getUsuarioId());
+        assertEquals(3L, editada.getCambio());
+        assertEquals(ahora, editada.getUpdatedAt());
+        assertEquals(version + 1, editada.getVersion());
+        assertTrue(obsoleta.isEmpty());
+        assertTrue(ajena.isEmpty());
+        assertEquals("Editada", sinVersion.orElseThrow().getTitulo());
+        assertEquals(version + 2, sinVersion.orElseThrow().getVersion());
+        entityManager.clear();
+        Nota actual = notaRepository.findById(id).orElseThrow();
+        assertEquals("Nuevo contenido", actual.getContenido());
+        assertEquals(6L, actual.getCambio());
+    }
+
+    private static Usuario crearUsuario(String email) {
+        Usuario nuevo = new Usuario();
+        nuevo.setEmail(email);
+        nuevo.setPassword("encodedPassword");
+        nuevo.setEnabled(true);
+        return nuevo;
+    }
+
+    private static Nota crearNota(Long id, String titulo, String contenido) {
+        Nota nota = new Nota();
+        nota.setId(id);
+        nota.setTitulo(titulo);
+        nota.setContenido(contenido);
+        return nota;
+    }
+}
@@ -0,0 +1,148 @@
+package com.sanez.repository;
+
+import com.sanez.dto.nota.NotaSummary;
+import com.sanez.model.Nota;
+import com.sanez.model.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("NotaRepository - Tests de Integración")
+class NotaRepositoryTest {
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Usuario usuario;
+    private Usuario otroUsuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = entityManager.persist(crearUsuario("test@example.com"));
+        otroUsuario = entityManager.persist(crearUsuario("otro@example.com"));
+    }
+
+    // ==================== TESTS DE findPaginaPorUsuario ====================
+
+    @Test
+    @DisplayName("findPaginaPorUsuario - Recorre todas las notas del usuario por cursor sin repetir ni saltar")
+    void findPaginaPorUsuario_recorreTodasLasPaginas() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(crearNota("Nota " + i, usuario));
+            entityManager.persist(crearNota("Ajena " + i, otroUsuario));
+        }
+        entityManager.flush();
+
+        // Act
+        List<NotaSummary> primera = notaRepository.findPaginaPorUsuario(usuario.getId(), 0L, Limit.of(2));
+        List<NotaSummary> segunda = notaRepository.findPaginaPorUsuario(usuario.getId(),
+                primera.get(1).getId(), Limit.of(2));
+        List<NotaSummary> tercera = notaRepository.findPaginaPorUsuario(usuario.getId(),
+                segunda.get(1).getId(), Limit.of(2));
+
+        // Assert
+        assertEquals(List.of("Nota 0", "Nota 1"), primera.stream().map(NotaSummary::getTitulo).toList());
+        assertEquals(List.of("Nota 2", "Nota 3"), segunda.stream().map(NotaSummary::getTitulo).toList());
+        assertEquals(List.of("Nota 4"), tercera.stream().map(NotaSummary::getTitulo).toList());
+    }
+
+    @Test
+    @DisplayName("findPaginaPorUsuario - El extracto se recorta a PREVIEW_LENGTH caracteres")
+    void findPaginaPorUsuario_contenidoLargo_recortaExtracto() {
+        // Arrange
+        Nota larga = crearNota("Larga", usuario);
+        larga.setContenido("x".repeat(5000));
+        entityManager.persistAndFlush(larga);
+
+        // Act
+        List<NotaSummary> resultado = notaRepository.findPaginaPorUsuario(usuario.getId(), 0L, Limit.of(10));
+
+        // Assert
+        assertEquals(1, resultado.size());
+        assertEquals(NotaSummary.PREVIEW_LENGTH, resultado.get(0).getPreview().length());
+    }
+
+    @Test
+    @DisplayName("findPaginaPorUsuario - Usuario sin notas retorna lista vacía")
+    void findPaginaPorUsuario_sinNotas_retornaVacio() {
+        // Act
+        List<NotaSummary> resultado = notaRepository.findPaginaPorUsuario(usuario.getId(), 0L, Limit.of(10));
+
+        // Assert
+        assertTrue(resultado.isEmpty());
+    }
+
+    // ==================== TESTS DE streamByUsuarioId ====================
+
+    @Test
+    @DisplayName("streamByUsuarioId - Recorre solo las notas del usuario en orden de id")
+    void streamByUsuarioId_retornaNotasDelUsuario() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(crearNota("Nota " + i, usuario));
+            entityManager.persist(crearNota("Ajena " + i, otroUsuario));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<String> titulos;
+        try (Stream<Nota> notas = notaRepository.streamByUsuarioId(usuario.getId())) {
+            titulos = notas.map(Nota::getTitulo).toList();
+        }
+
+        // Assert
+        assertEquals(List.of("Nota 0", "Nota 1", "Nota 2"), titulos);
+    }
+
+    // ==================== TESTS DE eliminarDeUsuario / existsByIdAndUsuarioId ====================
+
+    @Test
+    @DisplayName("eliminarDeUsuario - Solo borra si la nota pertenece al usuario")
+    void eliminarDeUsuario_soloNotaPropia() {
+        // Arrange
+        Nota nota = entityManager.persistAndFlush(crearNota("Nota", usuario));
+
+        // Act
+        int ajeno = notaRepository.eliminarDeUsuario(nota.getId(), otroUsuario.getId());
+        boolean existeTrasAjeno = notaRepository.existsByIdAndUsuarioId(nota.getId(), usuario.getId());
+        int propio = notaRepository.eliminarDeUsuario(nota.getId(), usuario.getId());
+
+        // Assert
+        assertEquals(0, ajeno);
+        assertTrue(existeTrasAjeno);
+        assertFalse(notaRepository.existsByIdAndUsuarioId(nota.getId(), otroUsuario.getId()));
+        assertEquals(1, propio);
+        assertTrue(notaRepository.findById(nota.getId()).isEmpty());
+    }
+
+    private static Usuario crearUsuario(String email) {
+        Usuario nuevo = new Usuario();
+        nuevo.setEmail(email);
+        nuevo.setPassword("encodedPassword");
+        nuevo.setEnabled(true);
+        return nuevo;
+    }
+
+    private static Nota crearNota(String titulo, Usuario propietario) {
+        Nota nota = new Nota();
+        nota.setTitulo(titulo);
+        nota.setContenido("Contenido de " + titulo);
+        nota.setUsuario(propietario);
+        return nota;
+    }
+}
@@ -0,0 +1,127 @@
+package com.sanez.repository;
+
+import com.sanez.model.Nota;
+import com.sanez.model.Perfil;
+import com.sanez.model.Usuario;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("PerfilRepository - Tests de Integración")
+class PerfilRepositoryTest {
+
+    @Autowired
+    private PerfilRepository perfilRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Usuario usuario;
+    private Perfil perfil;
+    private Nota nota1;
+    private Nota nota2;
+    private Nota nota3;
+    private Nota ajena;
+
+    @BeforeEach
+    void setUp() {
+        usuario = entityManager.persist(crearUsuario("test@example.com"));
+        Usuario otroUsuario = entityManager.persist(crearUsuario("otro@example.com"));
+        perfil = new Perfil();
+        perfil.setNombre("Test");
+        perfil.setUsuario(usuario);
+        perfil = entityManager.persist(perfil);
+        nota1 = entityManager.persist(crearNota("Nota 1", usuario));
+        nota2 = entityManager.persist(crearNota("Nota 2", usuario));
+        nota3 = entityManager.persist(crearNota("Nota 3", usuario));
+        ajena = entityManager.persist(crearNota("Ajena", otroUsuario));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("agregarFavoritas - Inserta solo las notas propias que aún no eran favoritas")
+    void agregarFavoritas_soloPropiasYNuevas() {
+        // Arrange
+        perfilRepository.agregarFavoritas(perfil.getId(), usuario.getId(), List.of(nota2.getId()));
+
+        // Act
+        int insertadas = perfilRepository.agregarFavoritas(perfil.getId(), usuario.getId(),
+                List.of(nota3.getId(), nota1.getId(), nota2.getId(), ajena.getId()));
+        entityManager.clear();
+
+        // Assert
+        assertEquals(2, insertadas);
+        Perfil leido = perfilRepository.findConFavoritasByUsuarioId(usuario.getId()).orElseThrow();
+        assertEquals(List.of(nota1.getId(), nota2.getId(), nota3.getId()), List.copyOf(leido.getNotasFavoritas()));
+    }
+
+    @Test
+    @DisplayName("eliminarFavoritas - Borra solo las filas indicadas del perfil")
+    void eliminarFavoritas_borraSoloLasIndicadas() {
+        // Arrange
+        perfilRepository.agregarFavoritas(perfil.getId(), usuario.getId(),
+                List.of(nota1.getId(), nota2.getId(), nota3.getId()));
+
+        // Act
+        int eliminadas = perfilRepository.eliminarFavoritas(perfil.getId(),
+                List.of(nota1.getId(), nota3.getId(), ajena.getId()));
+        entityManager.clear();
+
+        // Assert
+        assertEquals(2, eliminadas);
+        Perfil leido = perfilRepository.findConFavoritasByUsuarioId(usuario.getId()).orElseThrow();
+        assertEquals(Set.of(nota2.getId()), leido.getNotasFavoritas());
+    }
+
+    @Test
+    @DisplayName("incrementarVersion - Cambia la versión que usa el ETag del perfil")
+    void incrementarVersion_cambiaVersion() {
+        // Arrange
+        long antes = perfilRepository.findVersionByUsuarioId(usuario.getId()).orElseThrow().getVersion();
+
+        // Act
+        perfilRepository.incrementarVersion(perfil.getId());
+
+        // Assert
+        assertEquals(antes + 1, perfilRepository.findVersionByUsuarioId(usuario.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("perfil_notas_favoritas - La clave primaria (perfil_id, nota_id) impide duplicados")
+    void favoritas_clavePrimaria_impideDuplicados() {
+        // Arrange
+        String insertar = "insert into perfil_notas_favoritas (perfil_id, nota_id) values (?1, ?2)";
+        entityManager.getEntityManager().createNativeQuery(insertar)
+                .setParameter(1, perfil.getId()).setParameter(2, nota1.getId()).executeUpdate();
+
+        // Act & Assert
+        assertThrows(PersistenceException.class, () -> entityManager.getEntityManager().createNativeQuery(insertar)
+                .setParameter(1, perfil.getId()).setParameter(2, nota1.getId()).executeUpdate());
+    }
+
+    private static Usuario crearUsuario(String email) {
+        Usuario nuevo = new Usuario();
+        nuevo.setEmail(email);
+        nuevo.setPassword("encodedPassword");
+        nuevo.setEnabled(true);
+        return nuevo;
+    }
+
+    private static Nota crearNota(String titulo, Usuario propietario) {
+        Nota nota = new Nota();
+        nota.setTitulo(titulo);
+        nota.setContenido("Contenido de " + titulo);
+        nota.setUsuario(propietario);
+        return nota;
+    }
+}
@@ -0,0 +1,38 @@
+package com.sanez.repository;
+
+import com.sanez.model.TokenRevocado;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("TokenRevocadoRepository - Tests de Integración")
+class TokenRevocadoRepositoryTest {
+
+    @Autowired
+    private TokenRevocadoRepository tokenRevocadoRepository;
+
+    @Test
+    @DisplayName("deleteExpirados - Borra solo las entradas cuyo token ya expiró")
+    void deleteExpirados_borraSoloExpirados() {
+        // Arrange
+        Instant ahora = Instant.now();
+        tokenRevocadoRepository.save(new TokenRevocado("expirado", ahora.minusSeconds(60), ahora.minusSeconds(3600)));
+        tokenRevocadoRepository.save(new TokenRevocado("vigente", ahora.plusSeconds(60), ahora.minusSeconds(3600)));
+        tokenRevocadoRepository.flush();
+
+        // Act
+        int eliminados = tokenRevocadoRepository.deleteExpirados(ahora);
+
+        // Assert
+        assertEquals(1, eliminados);
+        assertFalse(tokenRevocadoRepository.existsById("expirado"));
+        assertEquals(List.of("vigente"), tokenRevocadoRepository.findJtiVigentes(ahora));
+    }
+}
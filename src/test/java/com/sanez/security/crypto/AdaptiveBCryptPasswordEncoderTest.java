@@ -0,0 +1,50 @@
+package com.sanez.security.crypto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdaptiveBCryptPasswordEncoder - Tests Unitarios")
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    @DisplayName("upgradeEncoding - Hash con coste distinto (mayor o menor) requiere re-hash")
+    void upgradeEncoding_costeDistinto_devuelveTrue() {
+        // Arrange
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+        String hashCoste4 = new BCryptPasswordEncoder(4).encode("password123");
+        String hashCoste6 = new BCryptPasswordEncoder(6).encode("password123");
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(hashCoste4));
+        assertTrue(encoder.upgradeEncoding(hashCoste6));
+        assertTrue(encoder.matches("password123", hashCoste6));
+    }
+
+    @Test
+    @DisplayName("upgradeEncoding - Hash con el coste vigente o con formato desconocido no se toca")
+    void upgradeEncoding_mismoCoste_devuelveFalse() {
+        // Arrange
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(4);
+        String hash = encoder.encode("password123");
+
+        // Act & Assert
+        assertFalse(encoder.upgradeEncoding(hash));
+        assertFalse(encoder.upgradeEncoding("no-es-bcrypt"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    @DisplayName("desdeConfiguracion - 'auto' nunca elige un coste por debajo del mínimo")
+    void desdeConfiguracion_auto_respetaCosteMinimo() {
+        // Act - un objetivo imposible obliga a quedarse en el mínimo
+        AdaptiveBCryptPasswordEncoder auto = AdaptiveBCryptPasswordEncoder.desdeConfiguracion("auto", 1);
+        AdaptiveBCryptPasswordEncoder fijo = AdaptiveBCryptPasswordEncoder.desdeConfiguracion("12", 1);
+
+        // Assert
+        assertEquals(AdaptiveBCryptPasswordEncoder.MIN_STRENGTH, auto.getStrength());
+        assertEquals(12, fijo.getStrength());
+    }
+}
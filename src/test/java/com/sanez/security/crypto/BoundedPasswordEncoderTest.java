@@ -0,0 +1,98 @@
+package com.sanez.security.crypto;
+
+import com.sanez.exception.ServicioSaturadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedPasswordEncoder - Tests Unitarios")
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    @DisplayName("encode/matches - Delegan en BCrypt y registran la latencia")
+    void encodeYMatches_delegaEnBCrypt() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 2, meterRegistry);
+
+        // Act
+        String hash = encoder.encode("password123");
+
+        // Assert
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("otraPassword", hash));
+        assertEquals(1, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("encode - Con el pool y la cola llenos rechaza de inmediato con ServicioSaturadoException")
+    void encode_colaLlena_lanzaServicioSaturado() throws Exception {
+        // Arrange - un hilo y una plaza en cola; el delegado queda bloqueado hasta liberar el latch
+        CountDownLatch enEjecucion = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new BloqueanteEncoder(enEjecucion, liberar), 1, 1, 5, meterRegistry);
+
+        CompletableFuture<String> primera = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(enEjecucion.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> segunda = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (meterRegistry.get("password.hash.queue.size").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // Act
+        ServicioSaturadoException ex = assertThrows(ServicioSaturadoException.class, () -> encoder.encode("c"));
+
+        // Assert
+        assertEquals(5, ex.getRetryAfterSegundos());
+        assertEquals(1, meterRegistry.get("password.hash.rejected").counter().count());
+
+        liberar.countDown();
+        assertEquals("a", primera.get(5, TimeUnit.SECONDS));
+        assertEquals("b", segunda.get(5, TimeUnit.SECONDS));
+    }
+
+    // Encoder de prueba que se bloquea hasta que el test lo libera.
+    private static final class BloqueanteEncoder implements PasswordEncoder {
+
+        private final CountDownLatch enEjecucion;
+        private final CountDownLatch liberar;
+
+        private BloqueanteEncoder(CountDownLatch enEjecucion, CountDownLatch liberar) {
+            this.enEjecucion = enEjecucion;
+            this.liberar = liberar;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            enEjecucion.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
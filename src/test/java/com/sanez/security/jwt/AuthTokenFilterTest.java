@@ -0,0 +1,184 @@
+package com.sanez.security.jwt;
+
+import com.sanez.security.service.CustomUserDetails;
+import com.sanez.security.service.TokenRevocationService;
+import com.sanez.security.service.TokenVersionCache;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthTokenFilter - Tests Unitarios")
+class AuthTokenFilterTest {
+
+    private static final String SECRET = "mysupersecretkeymysupersecretkeymysupersecretkeymysupersecretkey";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3600000, new VerifiedTokenCache(0, 0));
+        // Token emitido con la versión de credenciales 0.
+        token = jwtUtil.generateToken(usuario(0));
+        lenient().when(tokenRevocationService.isRevoked(anyString())).thenReturn(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // ==================== MODO CON CONSULTA A USUARIOS ====================
+
+    @Test
+    @DisplayName("Modo por defecto - Token vigente autentica con el usuario cargado de la base de datos")
+    void principalDesdeBaseDeDatos_tokenVigente_autentica() throws Exception {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(usuario(0));
+
+        // Act
+        MockHttpServletResponse response = ejecutar(filtro(false));
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        verifyNoInteractions(tokenVersionCache);
+    }
+
+    @Test
+    @DisplayName("Modo por defecto - Token con versión de credenciales obsoleta retorna 401")
+    void principalDesdeBaseDeDatos_versionObsoleta_retorna401() throws Exception {
+        // Arrange - la contraseña cambió después de emitir el token
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(usuario(1));
+
+        // Act
+        MockHttpServletResponse response = ejecutar(filtro(false));
+
+        // Assert
+        assertEquals(401, response.getStatus());
+    }
+
+    // ==================== MODO SIN ESTADO (jwt.stateless-principal=true) ====================
+
+    @Test
+    @DisplayName("Modo sin estado - Token vigente autentica desde los claims sin consultar usuarios")
+    void principalSinEstado_tokenVigente_autenticaDesdeClaims() throws Exception {
+        // Arrange
+        when(tokenVersionCache.getCurrentVersion(7L)).thenReturn(0);
+        Authentication[] autenticacion = new Authentication[1];
+
+        // Act
+        MockHttpServletResponse response = ejecutar(filtro(true),
+                (req, res) -> autenticacion[0] = SecurityContextHolder.getContext().getAuthentication());
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        CustomUserDetails principal = (CustomUserDetails) autenticacion[0].getPrincipal();
+        assertEquals(7L, principal.getId());
+        assertEquals("test@example.com", principal.getUsername());
+        assertEquals(List.of("ROLE_USER"),
+                principal.getAuthorities().stream().map(Object::toString).toList());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Modo sin estado - Token con versión de credenciales obsoleta retorna 401")
+    void principalSinEstado_versionObsoleta_retorna401() throws Exception {
+        // Arrange
+        when(tokenVersionCache.getCurrentVersion(7L)).thenReturn(1);
+
+        // Act
+        MockHttpServletResponse response = ejecutar(filtro(true));
+
+        // Assert
+        assertEquals(401, response.getStatus());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Modo sin estado - Usuario eliminado retorna 401")
+    void principalSinEstado_usuarioEliminado_retorna401() throws Exception {
+        // Arrange
+        when(tokenVersionCache.getCurrentVersion(7L)).thenReturn(null);
+
+        // Act
+        MockHttpServletResponse response = ejecutar(filtro(true));
+
+        // Assert
+        assertEquals(401, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Token revocado por cierre de sesión retorna 401 en ambos modos")
+    void tokenRevocado_retorna401() throws Exception {
+        // Arrange
+        when(tokenRevocationService.isRevoked(anyString())).thenReturn(true);
+
+        // Act & Assert
+        assertEquals(401, ejecutar(filtro(false)).getStatus());
+        assertEquals(401, ejecutar(filtro(true)).getStatus());
+        verifyNoInteractions(userDetailsService, tokenVersionCache);
+    }
+
+    private AuthTokenFilter filtro(boolean statelessPrincipal) {
+        return new AuthTokenFilter(jwtUtil, userDetailsService, tokenVersionCache, tokenRevocationService,
+                statelessPrincipal);
+    }
+
+    private MockHttpServletResponse ejecutar(AuthTokenFilter filtro) throws Exception {
+        return ejecutar(filtro, (req, res) -> { });
+    }
+
+    // Ejecuta el filtro sobre GET /api/notas. El resto de la cadena reproduce la regla authenticated():
+    // sin autenticación responde AuthEntryPointJwt (401).
+    private MockHttpServletResponse ejecutar(AuthTokenFilter filtro, FilterChain alAutenticar) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notas");
+        request.setServletPath("/api/notas");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(request, response, (req, res) -> {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                new AuthEntryPointJwt().commence(request, response,
+                        new InsufficientAuthenticationException("Full authentication is required"));
+                return;
+            }
+            alAutenticar.doFilter(req, res);
+        });
+        return response;
+    }
+
+    private static CustomUserDetails usuario(int tokenVersion) {
+        return new CustomUserDetails(7L, "test@example.com", "encodedPassword",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), tokenVersion);
+    }
+}
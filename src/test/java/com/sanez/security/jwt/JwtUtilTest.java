@@ -0,0 +1,123 @@
+package com.sanez.security.jwt;
+
+import com.sanez.security.service.CustomUserDetails;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtUtil - Tests Unitarios")
+class JwtUtilTest {
+
+    private static final String SECRET = "mysupersecretkeymysupersecretkeymysupersecretkeymysupersecretkey";
+
+    private JwtUtil jwtUtil;
+    private CustomUserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        // Sin caché de tokens verificados: cada llamada verifica la firma.
+        jwtUtil = new JwtUtil(SECRET, 3600000, new VerifiedTokenCache(0, 0));
+        userDetails = new CustomUserDetails(7L, "test@example.com", "encodedPassword",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    // ==================== TESTS DE VERIFICACIÓN ====================
+
+    @Test
+    @DisplayName("verifyToken - Token válido retorna todos los claims")
+    void verifyToken_tokenValido_retornaClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken(userDetails);
+
+        // Act
+        VerifiedJwt verified = jwtUtil.verifyToken(token);
+
+        // Assert
+        assertNotNull(verified);
+        assertEquals("test@example.com", verified.getUsername());
+        assertEquals(7L, verified.getUserId());
+        assertEquals(List.of("ROLE_USER"), verified.getRoles());
+        assertNotNull(verified.getExpiration());
+    }
+
+    @Test
+    @DisplayName("verifyToken - Token con firma alterada retorna null")
+    void verifyToken_firmaAlterada_retornaNull() {
+        // Arrange
+        String token = jwtUtil.generateToken(userDetails);
+        char ultimo = token.charAt(token.length() - 1);
+        String alterado = token.substring(0, token.length() - 1) + (ultimo == 'A' ? 'B' : 'A');
+
+        // Act & Assert
+        assertNull(jwtUtil.verifyToken(alterado));
+        assertFalse(jwtUtil.validateToken(alterado));
+    }
+
+    @Test
+    @DisplayName("verifyToken - Token mal formado retorna null")
+    void verifyToken_malFormado_retornaNull() {
+        assertNull(jwtUtil.verifyToken("no-es-un-jwt"));
+        assertNull(jwtUtil.getUsernameFromToken("no-es-un-jwt"));
+        assertEquals(List.of(), jwtUtil.getRolesFromToken("no-es-un-jwt"));
+    }
+
+    // ==================== MICROBENCHMARK ====================
+
+    // Solo bajo demanda, fuera del mvn test por defecto: ./mvnw test -Dtest=JwtUtilTest -Dbenchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark - Verificación única vs. parseo repetido por petición")
+    void benchmark_verificacionUnica_vsParseoRepetido() {
+        String token = jwtUtil.generateToken(userDetails);
+        int iteraciones = 5_000;
+
+        // Calentamiento de ambos caminos para que el JIT no sesgue la medición.
+        for (int i = 0; i < 1_000; i++) {
+            flujoAnterior(token);
+            flujoActual(token);
+        }
+
+        long inicioAnterior = System.nanoTime();
+        for (int i = 0; i < iteraciones; i++) {
+            assertEquals("test@example.com", flujoAnterior(token));
+        }
+        long nanosAnterior = System.nanoTime() - inicioAnterior;
+
+        long inicioActual = System.nanoTime();
+        for (int i = 0; i < iteraciones; i++) {
+            assertEquals("test@example.com", flujoActual(token));
+        }
+        long nanosActual = System.nanoTime() - inicioActual;
+
+        System.out.printf("JWT por petición - antes: %.2f µs, después: %.2f µs (%.1fx)%n",
+                nanosAnterior / 1000.0 / iteraciones,
+                nanosActual / 1000.0 / iteraciones,
+                (double) nanosAnterior / nanosActual);
+        // El flujo anterior verifica la firma dos veces y deriva la clave en cada llamada.
+        assertTrue(nanosActual < nanosAnterior);
+    }
+
+    // Reproduce el flujo previo del filtro: decodificar la clave, construir el parser
+    // y verificar la firma dos veces (validateToken + getUsernameFromToken).
+    private String flujoAnterior(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        SecretKey key2 = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key2).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    // Flujo actual: una sola verificación con clave y parser precalculados.
+    private String flujoActual(String token) {
+        return jwtUtil.verifyToken(token).getUsername();
+    }
+}
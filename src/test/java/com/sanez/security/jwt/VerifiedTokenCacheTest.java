@@ -0,0 +1,93 @@
+package com.sanez.security.jwt;
+
+import com.sanez.security.service.CustomUserDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VerifiedTokenCache - Tests Unitarios")
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "mysupersecretkeymysupersecretkeymysupersecretkeymysupersecretkey";
+
+    private VerifiedTokenCache cache;
+    private CustomUserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(100, 300);
+        userDetails = new CustomUserDetails(7L, "test@example.com", "encodedPassword",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    @DisplayName("verifyToken - Segunda verificación del mismo token es un acierto de caché")
+    void verifyToken_mismoToken_aciertoEnCache() {
+        // Arrange
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3600000, cache);
+        String token = jwtUtil.generateToken(userDetails);
+
+        // Act
+        VerifiedJwt primero = jwtUtil.verifyToken(token);
+        VerifiedJwt segundo = jwtUtil.verifyToken(token);
+
+        // Assert
+        assertNotNull(primero);
+        assertSame(primero, segundo);
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    @DisplayName("verifyToken - Token alterado nunca se sirve desde la caché")
+    void verifyToken_tokenAlterado_noSeSirveDesdeCache() {
+        // Arrange
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3600000, cache);
+        String token = jwtUtil.generateToken(userDetails);
+        assertNotNull(jwtUtil.verifyToken(token)); // Queda cacheado
+
+        char ultimo = token.charAt(token.length() - 1);
+        String alterado = token.substring(0, token.length() - 1) + (ultimo == 'A' ? 'B' : 'A');
+
+        // Act & Assert
+        assertNull(cache.get(alterado));
+        assertNull(jwtUtil.verifyToken(alterado));
+        assertEquals(0, cache.stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("verifyToken - Token expirado nunca se sirve desde la caché")
+    void verifyToken_tokenExpirado_noSeSirveDesdeCache() throws InterruptedException {
+        // Arrange - token con 1 segundo de vida
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 1000, cache);
+        String token = jwtUtil.generateToken(userDetails);
+        assertNotNull(jwtUtil.verifyToken(token)); // Queda cacheado
+
+        // Act - se espera a que el token expire
+        Thread.sleep(1100);
+
+        // Assert
+        assertNull(cache.get(token));
+        assertNull(jwtUtil.verifyToken(token));
+    }
+
+    @Test
+    @DisplayName("put - No cachea tokens ya expirados")
+    void put_tokenExpirado_noSeCachea() {
+        // Arrange
+        VerifiedJwt expirado = new VerifiedJwt("jti-1", "test@example.com", 7L, List.of("ROLE_USER"),
+                new Date(System.currentTimeMillis() - 1000), 0);
+
+        // Act
+        cache.put("token-expirado", expirado);
+
+        // Assert
+        assertNull(cache.get("token-expirado"));
+    }
+}
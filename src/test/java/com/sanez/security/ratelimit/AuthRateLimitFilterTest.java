@@ -0,0 +1,124 @@
+package com.sanez.security.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AuthRateLimitFilter - Tests Unitarios")
+class AuthRateLimitFilterTest {
+
+    private AuthRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        // 3 peticiones por IP y 2 por cuenta, sin recarga apreciable durante el test
+        filter = new AuthRateLimitFilter(3, 3600, 2, 3600, 1000, 600);
+    }
+
+    @Test
+    @DisplayName("signin - Supera el límite por IP y responde 429 con Retry-After")
+    void signin_superaLimitePorIp_retorna429() throws Exception {
+        // Arrange & Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, ejecutar(peticionSignin("10.0.0.1", "user" + i + "@example.com")).getStatus());
+        }
+        MockHttpServletResponse rechazada = ejecutar(peticionSignin("10.0.0.1", "otro@example.com"));
+
+        // Assert
+        assertEquals(429, rechazada.getStatus());
+        assertNotNull(rechazada.getHeader("Retry-After"));
+        assertEquals(200, ejecutar(peticionSignin("10.0.0.2", "otro@example.com")).getStatus());
+    }
+
+    @Test
+    @DisplayName("signin - Supera el límite por cuenta aunque cambie la IP")
+    void signin_superaLimitePorCuenta_retorna429() throws Exception {
+        // Arrange & Act
+        assertEquals(200, ejecutar(peticionSignin("10.0.0.1", "test@example.com")).getStatus());
+        assertEquals(200, ejecutar(peticionSignin("10.0.0.2", "TEST@example.com")).getStatus());
+        MockHttpServletResponse rechazada = ejecutar(peticionSignin("10.0.0.3", "test@example.com"));
+
+        // Assert
+        assertEquals(429, rechazada.getStatus());
+    }
+
+    @Test
+    @DisplayName("forgot-password - El email por parámetro también cuenta para el límite por cuenta")
+    void forgotPassword_emailPorParametro_seLimita() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/forgot-password");
+        request.setServletPath("/api/auth/forgot-password");
+        request.setParameter("email", "test@example.com");
+
+        // Act & Assert
+        assertEquals(200, ejecutar(request).getStatus());
+        assertEquals(200, ejecutar(request).getStatus());
+        assertEquals(429, ejecutar(request).getStatus());
+    }
+
+    @Test
+    @DisplayName("Límite por cuenta - Es compartido por todos los endpoints con el mismo email")
+    void limitePorCuenta_compartidoEntreEndpoints() throws Exception {
+        // Arrange
+        MockHttpServletRequest forgot = new MockHttpServletRequest("POST", "/api/auth/forgot-password");
+        forgot.setServletPath("/api/auth/forgot-password");
+        forgot.setRemoteAddr("10.0.0.9");
+        forgot.setParameter("email", "test@example.com");
+
+        // Act
+        assertEquals(200, ejecutar(peticionSignin("10.0.0.1", "test@example.com")).getStatus());
+        assertEquals(200, ejecutar(peticionSignin("10.0.0.2", "test@example.com")).getStatus());
+        MockHttpServletResponse rechazada = ejecutar(forgot);
+
+        // Assert
+        assertEquals(429, rechazada.getStatus());
+    }
+
+    @Test
+    @DisplayName("signin - El cuerpo sigue disponible completo para el controlador")
+    void signin_cuerpoSeReentregaIntacto() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = peticionSignin("10.0.0.1", "test@example.com");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        String cuerpo = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals("{\"email\":\"test@example.com\",\"password\":\"Password123\"}", cuerpo);
+    }
+
+    @Test
+    @DisplayName("Rutas no limitadas no consumen tokens")
+    void rutaNoLimitada_noSeLimita() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notas");
+            request.setServletPath("/api/notas");
+            assertEquals(200, ejecutar(request).getStatus());
+        }
+    }
+
+    private MockHttpServletResponse ejecutar(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest peticionSignin(String ip, String email) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/signin");
+        request.setServletPath("/api/auth/signin");
+        request.setRemoteAddr(ip);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"Password123\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,109 @@
+package com.sanez.security.ratelimit;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CachedBodyHttpServletRequest - Tests Unitarios")
+class CachedBodyHttpServletRequestTest {
+
+    private static final String CUERPO = "{\"email\":\"test@example.com\",\"password\":\"secreta\"}";
+
+    @Test
+    @DisplayName("getInputStream - Entrega el prefijo leído más el resto del cuerpo original")
+    void getInputStream_prefijoMasResto() throws IOException {
+        // Arrange
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(peticion(), 10);
+
+        // Act
+        String leido = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+        // Assert
+        assertEquals(CUERPO.substring(0, 10), new String(request.getPrefijo(), StandardCharsets.UTF_8));
+        assertEquals(CUERPO, leido);
+    }
+
+    @Test
+    @DisplayName("setReadListener - Notifica datos disponibles y fin de lectura con el cuerpo completo")
+    void setReadListener_lecturaAsincrona_cuerpoCompleto() throws IOException {
+        // Arrange
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(peticion(), 10);
+        ServletInputStream entrada = request.getInputStream();
+        ByteArrayOutputStream leido = new ByteArrayOutputStream();
+        List<String> eventos = new ArrayList<>();
+
+        // Act
+        entrada.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                eventos.add("datos");
+                byte[] buffer = new byte[8];
+                int n;
+                while (entrada.isReady() && (n = entrada.read(buffer)) != -1) {
+                    leido.write(buffer, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                eventos.add("fin");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                eventos.add("error");
+            }
+        });
+
+        // Assert
+        assertEquals(List.of("datos", "fin"), eventos);
+        assertEquals(CUERPO, leido.toString(StandardCharsets.UTF_8));
+        assertTrue(entrada.isFinished());
+    }
+
+    @Test
+    @DisplayName("setReadListener - Un error del listener se notifica por onError")
+    void setReadListener_errorEnListener_notificaOnError() throws IOException {
+        // Arrange
+        ServletInputStream entrada = new CachedBodyHttpServletRequest(peticion(), 10).getInputStream();
+        List<Throwable> errores = new ArrayList<>();
+
+        // Act
+        entrada.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                throw new IOException("fallo");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                fail("No debe completarse tras un error");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                errores.add(t);
+            }
+        });
+
+        // Assert
+        assertEquals(1, errores.size());
+        assertEquals("fallo", errores.get(0).getMessage());
+    }
+
+    private static MockHttpServletRequest peticion() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/signin");
+        request.setContent(CUERPO.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
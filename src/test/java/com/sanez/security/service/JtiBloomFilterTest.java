@@ -0,0 +1,65 @@
+package com.sanez.security.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JtiBloomFilter - Tests Unitarios")
+class JtiBloomFilterTest {
+
+    @Test
+    @DisplayName("mightContain - Sin falsos negativos para los jti añadidos, incluso por encima de la capacidad")
+    void mightContain_jtiAnadidos_sinFalsosNegativos() {
+        // Arrange
+        JtiBloomFilter filtro = new JtiBloomFilter(1_000, 0.01);
+        List<String> anadidos = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            anadidos.add(UUID.randomUUID().toString());
+        }
+
+        // Act
+        anadidos.forEach(filtro::put);
+
+        // Assert
+        for (String jti : anadidos) {
+            assertTrue(filtro.mightContain(jti), jti);
+        }
+    }
+
+    @Test
+    @DisplayName("mightContain - Un filtro vacío no contiene ningún jti")
+    void mightContain_filtroVacio_retornaFalse() {
+        // Arrange
+        JtiBloomFilter filtro = new JtiBloomFilter(1_000, 0.01);
+
+        // Act & Assert
+        assertFalse(filtro.mightContain(UUID.randomUUID().toString()));
+        assertFalse(filtro.mightContain(""));
+    }
+
+    @Test
+    @DisplayName("mightContain - La tasa de falsos positivos se mantiene cerca de la configurada")
+    void mightContain_tasaFalsosPositivos_acotada() {
+        // Arrange
+        JtiBloomFilter filtro = new JtiBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.put(UUID.randomUUID().toString());
+        }
+
+        // Act
+        int positivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.mightContain(UUID.randomUUID().toString())) {
+                positivos++;
+            }
+        }
+
+        // Assert - margen amplio sobre el 1 % para que el test no sea inestable
+        assertTrue(positivos < 3_000, "falsos positivos: " + positivos);
+    }
+}
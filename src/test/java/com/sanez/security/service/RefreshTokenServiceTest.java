@@ -0,0 +1,109 @@
+package com.sanez.security.service;
+
+import com.sanez.exception.AccesoNoAutorizadoException;
+import com.sanez.model.TokenRefresco;
+import com.sanez.model.Usuario;
+import com.sanez.repository.TokenRefrescoRepository;
+import com.sanez.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenService - Tests Unitarios")
+class RefreshTokenServiceTest {
+
+    @Mock
+    private TokenRefrescoRepository tokenRefrescoRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private RefreshTokenService service;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenService(tokenRefrescoRepository, usuarioRepository, 86400000);
+        usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setEmail("test@example.com");
+    }
+
+    @Test
+    @DisplayName("rotar - Token vigente se marca como usado y se emite otro de la misma familia")
+    void rotar_tokenVigente_emiteNuevo() {
+        // Arrange
+        TokenRefresco actual = token(Instant.now().plusSeconds(60), false);
+        when(tokenRefrescoRepository.findByTokenHash(anyString())).thenReturn(Optional.of(actual));
+        when(tokenRefrescoRepository.marcarUsado(10L)).thenReturn(1);
+
+        // Act
+        RefreshTokenService.Rotacion rotacion = service.rotar("token");
+
+        // Assert
+        assertEquals("test@example.com", rotacion.email());
+        assertNotNull(rotacion.refreshToken());
+        verify(tokenRefrescoRepository).save(argThat(nuevo -> "familia".equals(nuevo.getFamilia())));
+        verify(tokenRefrescoRepository, never()).deleteByFamilia(anyString());
+    }
+
+    @Test
+    @DisplayName("rotar - Token ya usado revoca la familia completa")
+    void rotar_tokenReutilizado_revocaFamilia() {
+        // Arrange
+        when(tokenRefrescoRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(token(Instant.now().plusSeconds(60), true)));
+
+        // Act & Assert
+        assertThrows(AccesoNoAutorizadoException.class, () -> service.rotar("token"));
+        verify(tokenRefrescoRepository).deleteByFamilia("familia");
+        verify(tokenRefrescoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("rotar - Token expirado presentado dos veces no se marca como usado ni revoca la familia")
+    void rotar_tokenExpiradoDosVeces_noRevocaFamilia() {
+        // Arrange
+        when(tokenRefrescoRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(token(Instant.now().minusSeconds(60), false)));
+
+        // Act
+        AccesoNoAutorizadoException primera =
+                assertThrows(AccesoNoAutorizadoException.class, () -> service.rotar("token"));
+        AccesoNoAutorizadoException segunda =
+                assertThrows(AccesoNoAutorizadoException.class, () -> service.rotar("token"));
+
+        // Assert
+        assertEquals("El token de refresco ha expirado", primera.getMessage());
+        assertEquals("El token de refresco ha expirado", segunda.getMessage());
+        verify(tokenRefrescoRepository, never()).marcarUsado(any());
+        verify(tokenRefrescoRepository, never()).deleteByFamilia(anyString());
+    }
+
+    @Test
+    @DisplayName("rotar - Token desconocido lanza AccesoNoAutorizadoException")
+    void rotar_tokenDesconocido_lanzaExcepcion() {
+        // Arrange
+        when(tokenRefrescoRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(AccesoNoAutorizadoException.class, () -> service.rotar("token"));
+        verify(tokenRefrescoRepository, never()).marcarUsado(any());
+    }
+
+    private TokenRefresco token(Instant expiracion, boolean usado) {
+        return new TokenRefresco(10L, "hash", "familia", expiracion, usado, usuario);
+    }
+}
@@ -0,0 +1,121 @@
+package com.sanez.security.service;
+
+import com.sanez.model.TokenRevocado;
+import com.sanez.repository.TokenRevocadoRepository;
+import com.sanez.security.jwt.VerifiedJwt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationService - Tests Unitarios")
+class TokenRevocationServiceTest {
+
+    private static final String REVOCADO = "7b0f3c1e-1d6a-4c1e-9a57-2f1c8e3d9b10";
+    private static final String VIGENTE = "c2a4e8f1-5b3d-4f7a-8e21-6d9c0b4a7f35";
+
+    @Mock
+    private TokenRevocadoRepository tokenRevocadoRepository;
+
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(tokenRevocadoRepository.findJtiVigentes(any())).thenReturn(List.of(REVOCADO));
+        service = new TokenRevocationService(tokenRevocadoRepository, 1_000, 0.001);
+        service.inicializar();
+    }
+
+    @Test
+    @DisplayName("isRevoked - Un jti revocado confirma contra la base de datos y retorna true")
+    void isRevoked_jtiEnLista_retornaTrue() {
+        // Arrange
+        when(tokenRevocadoRepository.existsById(REVOCADO)).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(service.isRevoked(REVOCADO));
+        verify(tokenRevocadoRepository).existsById(REVOCADO);
+    }
+
+    @Test
+    @DisplayName("isRevoked - Un jti no revocado se descarta en el filtro sin consultar la base de datos")
+    void isRevoked_jtiFueraDeLista_noConsultaBaseDeDatos() {
+        // Act & Assert
+        assertFalse(service.isRevoked(VIGENTE));
+        assertFalse(service.isRevoked(null));
+        verify(tokenRevocadoRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("revoke - Guarda el jti hasta su expiración y lo incorpora al filtro")
+    void revoke_guardaYMarcaEnFiltro() {
+        // Arrange
+        Date expiracion = new Date(System.currentTimeMillis() + 60_000);
+        when(tokenRevocadoRepository.existsById(VIGENTE)).thenReturn(true);
+
+        // Act
+        service.revoke(new VerifiedJwt(VIGENTE, "test@example.com", 1L, List.of(), expiracion, 0));
+
+        // Assert
+        ArgumentCaptor<TokenRevocado> guardado = ArgumentCaptor.forClass(TokenRevocado.class);
+        verify(tokenRevocadoRepository).save(guardado.capture());
+        assertEquals(VIGENTE, guardado.getValue().getJti());
+        assertEquals(expiracion.toInstant(), guardado.getValue().getExpiracion());
+        assertTrue(service.isRevoked(VIGENTE));
+    }
+
+    @Test
+    @DisplayName("sincronizar - Incorpora al filtro las revocaciones hechas por otros nodos")
+    void sincronizar_revocacionesDeOtrosNodos() {
+        // Arrange
+        when(tokenRevocadoRepository.findJtiRevocadosDesde(any())).thenReturn(List.of(VIGENTE));
+        when(tokenRevocadoRepository.existsById(VIGENTE)).thenReturn(true);
+
+        // Act
+        service.sincronizar();
+
+        // Assert
+        assertTrue(service.isRevoked(VIGENTE));
+    }
+
+    @Test
+    @DisplayName("purgarExpirados - Elimina los expirados y reconstruye el filtro sin ellos")
+    void purgarExpirados_reconstruyeFiltroSinExpirados() {
+        // Arrange
+        when(tokenRevocadoRepository.deleteExpirados(any(Instant.class))).thenReturn(1);
+        when(tokenRevocadoRepository.findJtiVigentes(any())).thenReturn(List.of());
+
+        // Act
+        service.purgarExpirados();
+
+        // Assert
+        verify(tokenRevocadoRepository).deleteExpirados(any(Instant.class));
+        assertFalse(service.isRevoked(REVOCADO));
+        verify(tokenRevocadoRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("purgarExpirados - Sin expirados no reconstruye el filtro")
+    void purgarExpirados_sinExpirados_noReconstruye() {
+        // Arrange
+        when(tokenRevocadoRepository.deleteExpirados(any(Instant.class))).thenReturn(0);
+
+        // Act
+        service.purgarExpirados();
+
+        // Assert - solo la carga inicial
+        verify(tokenRevocadoRepository, times(1)).findJtiVigentes(any());
+    }
+}
@@ -0,0 +1,93 @@
+package com.sanez.security.service;
+
+import com.sanez.exception.AccesoNoAutorizadoException;
+import com.sanez.model.Rol;
+import com.sanez.model.Usuario;
+import com.sanez.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserDetailsServiceImpl - Tests Unitarios")
+class UserDetailsServiceImplTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private UserDetailsCache userDetailsCache;
+    private UserDetailsServiceImpl userDetailsService;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = new UserDetailsCache(100, 60);
+        userDetailsService = new UserDetailsServiceImpl(usuarioRepository, userDetailsCache);
+
+        Rol rolUser = new Rol();
+        rolUser.setNombre("USER");
+
+        usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setEmail("test@example.com");
+        usuario.setPassword("encodedPassword");
+        usuario.setEnabled(true);
+        usuario.setRoles(Set.of(rolUser));
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername - La segunda carga se sirve desde caché con autoridades compartidas")
+    void loadUserByUsername_segundaCarga_noConsultaBaseDeDatos() {
+        // Arrange
+        when(usuarioRepository.findByEmail("test@example.com")).thenReturn(Optional.of(usuario));
+
+        // Act
+        UserDetails primero = userDetailsService.loadUserByUsername("test@example.com");
+        UserDetails segundo = userDetailsService.loadUserByUsername("test@example.com");
+
+        // Assert
+        assertSame(primero, segundo);
+        assertSame(GrantedAuthorities.of("ROLE_USER"), primero.getAuthorities().iterator().next());
+        verify(usuarioRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername - Tras invalidar se vuelve a consultar la base de datos")
+    void loadUserByUsername_trasInvalidar_recargaUsuario() {
+        // Arrange
+        when(usuarioRepository.findByEmail("test@example.com")).thenReturn(Optional.of(usuario));
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        // Act
+        userDetailsCache.invalidate("test@example.com");
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        // Assert
+        verify(usuarioRepository, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername - Una cuenta sin verificar no se cachea")
+    void loadUserByUsername_cuentaNoVerificada_noSeCachea() {
+        // Arrange
+        usuario.setEnabled(false);
+        when(usuarioRepository.findByEmail("test@example.com")).thenReturn(Optional.of(usuario));
+
+        // Act & Assert
+        assertThrows(AccesoNoAutorizadoException.class,
+                () -> userDetailsService.loadUserByUsername("test@example.com"));
+        assertThrows(AccesoNoAutorizadoException.class,
+                () -> userDetailsService.loadUserByUsername("test@example.com"));
+        verify(usuarioRepository, times(2)).findByEmail("test@example.com");
+    }
+}
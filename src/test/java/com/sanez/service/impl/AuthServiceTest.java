@@ -9,6 +9,9 @@ import com.sanez.model.Rol;
 import com.sanez.model.Usuario;
 import com.sanez.repository.RoleRepository;
 import com.sanez.repository.UsuarioRepository;
+import com.sanez.security.service.RefreshTokenService;
+import com.sanez.security.service.TokenVersionCache;
+import com.sanez.security.service.UserDetailsCache;
 import com.sanez.service.EmailService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +21,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -42,6 +47,15 @@ class AuthServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -145,11 +159,36 @@ class AuthServiceTest {
         // Assert
         verify(usuarioRepository, times(1)).findByVerificationToken(token);
         verify(usuarioRepository, times(1)).save(any(Usuario.class));
+        verify(userDetailsCache, times(1)).invalidate(usuario.getEmail());
         assertTrue(usuario.isEnabled());
         assertNull(usuario.getVerificationToken());
         assertNull(usuario.getTokenExpiration());
     }
 
+    @Test
+    @DisplayName("Verificar cuenta - La caché de usuarios se invalida solo tras el commit")
+    void verificarCuenta_invalidaCacheTrasCommit() {
+        // Arrange
+        String token = "valid-token";
+        usuario.setVerificationToken(token);
+        usuario.setTokenExpiration(LocalDateTime.now().plusHours(1));
+        usuario.setEnabled(false);
+        when(usuarioRepository.findByVerificationToken(token)).thenReturn(Optional.of(usuario));
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // Act
+            authService.verificarCuenta(token);
+
+            // Assert
+            verify(userDetailsCache, never()).invalidate(anyString());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(userDetailsCache, times(1)).invalidate(usuario.getEmail());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     @DisplayName("Verificar cuenta - Token inválido lanza excepción")
     void verificarCuenta_tokenInvalido_lanzaExcepcion() {
@@ -308,6 +347,37 @@ class AuthServiceTest {
         verify(usuarioRepository, times(1)).save(any(Usuario.class));
         assertNull(usuario.getPasswordResetToken());
         assertNull(usuario.getPasswordResetTokenExpiration());
+        assertEquals(1, usuario.getTokenVersion());
+        verify(tokenVersionCache, times(1)).invalidate(usuario.getId());
+        verify(userDetailsCache, times(1)).invalidate(usuario.getEmail());
+        verify(refreshTokenService, times(1)).revocarTodos(usuario.getId());
+    }
+
+    @Test
+    @DisplayName("Resetear password - La caché de versión de token se invalida después del commit")
+    void resetearPassword_invalidaCacheTrasCommit() {
+        // Arrange
+        String token = "reset-token";
+        usuario.setPasswordResetToken(token);
+        usuario.setPasswordResetTokenExpiration(LocalDateTime.now().plusMinutes(30));
+        when(usuarioRepository.findByPasswordResetToken(token)).thenReturn(Optional.of(usuario));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn("newPasswordEncoded");
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // Act
+            authService.resetearPassword(new ResetPasswordRequest(token, "NewPassword456"));
+
+            // Assert - nada se invalida hasta que la transacción confirma
+            verify(tokenVersionCache, never()).invalidate(anyLong());
+            verify(userDetailsCache, never()).invalidate(anyString());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(tokenVersionCache, times(1)).invalidate(usuario.getId());
+            verify(userDetailsCache, times(1)).invalidate(usuario.getEmail());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -0,0 +1,250 @@
+package com.sanez.service.impl;
+
+import com.sanez.dto.nota.NotaBusquedaDTO;
+import com.sanez.dto.nota.NotaSummary;
+import com.sanez.repository.NotaRepository;
+import com.sanez.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BuscadorNotasEnMemoria - Tests Unitarios")
+class BuscadorNotasEnMemoriaTest {
+
+    @Mock
+    private NotaRepository notaRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private BuscadorNotasEnMemoria buscador;
+
+    @BeforeEach
+    void setUp() {
+        buscador = new BuscadorNotasEnMemoria(notaRepository, usuarioRepository, 100, 30);
+        lenient().when(usuarioRepository.findVersionNotasById(1L)).thenReturn(Optional.of(0L));
+        lenient().when(notaRepository.findResumenes(eq(1L), anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(1);
+            return ids.stream().map(BuscadorNotasEnMemoriaTest::resumen).toList();
+        });
+    }
+
+    @Test
+    @DisplayName("buscar - Ignora tildes y mayúsculas en la consulta y en el texto")
+    void buscar_sinTildes_encuentraTextoConTildes() {
+        // Arrange
+        when(notaRepository.streamTextosByUsuarioId(1L)).thenReturn(Stream.of(
+                texto(1L, "Canción de cuna", "Letra para dormir"),
+                texto(2L, "Lista de compras", "Pan y leche")));
+
+        // Act
+        List<NotaBusquedaDTO> resultado = buscador.buscar(1L, "CANCION", 0, 10);
+
+        // Assert
+        assertEquals(List.of(1L), ids(resultado));
+    }
+
+    @Test
+    @DisplayName("buscar - Ordena por BM25: el término raro y el título pesan más")
+    void buscar_rankingBm25() {
+        // Arrange
+        when(notaRepository.streamTextosByUsuarioId(1L)).thenReturn(Stream.of(
+                texto(1L, "Reunión", "hablar del presupuesto del proyecto"),
+                texto(2L, "Presupuesto", "presupuesto anual revisado"),
+                texto(3L, "Proyecto", "plan del proyecto"),
+                texto(4L, "Proyecto", "otro proyecto")));
+
+        // Act
+        List<NotaBusquedaDTO> resultado = buscador.buscar(1L, "presupuesto proyecto", 0, 10);
+
+        // Assert
+        assertEquals(2L, resultado.get(0).getId());
+        assertEquals(4, resultado.size());
+        for (int i = 1; i < resultado.size(); i++) {
+            assertTrue(resultado.get(i - 1).getPuntuacion() >= resultado.get(i).getPuntuacion());
+        }
+    }
+
+    @Test
+    @DisplayName("buscar - El desplazamiento pagina sobre el mismo ranking")
+    void buscar_desplazamiento_paginaElRanking() {
+        // Arrange
+        when(notaRepository.streamTextosByUsuarioId(1L)).thenReturn(Stream.of(
+                texto(1L, "Tarea", "tarea"),
+                texto(2L, "Tarea", "tarea tarea"),
+                texto(3L, "Otra", "tarea")));
+        List<Long> completo = ids(buscador.buscar(1L, "tarea", 0, 10));
+
+        // Act
+        List<Long> segundaPagina = ids(buscador.buscar(1L, "tarea", 1, 1));
+
+        // Assert
+        assertEquals(3, completo.size());
+        assertEquals(List.of(completo.get(1)), segundaPagina);
+    }
+
+    @Test
+    @DisplayName("buscar - El índice se construye una sola vez y se mantiene con las escrituras")
+    void buscar_actualizacionesIncrementales() {
+        // Arrange
+        when(notaRepository.streamTextosByUsuarioId(1L)).thenReturn(Stream.of(
+                texto(1L, "Viaje", "billetes de tren")));
+        assertEquals(List.of(1L), ids(buscador.buscar(1L, "tren", 0, 10)));
+
+        // Act
+        buscador.notaGuardada(1L, 1L, 2L, "Tren nocturno", "horarios");
+        buscador.notaGuardada(1L, 2L, 1L, "Viaje", "billetes de avión");
+        buscador.notaEliminada(1L, 3L, 3L);
+        when(usuarioRepository.findVersionNotasById(1L)).thenReturn(Optional.of(3L));
+
+        // Assert
+        assertEquals(List.of(2L), ids(buscador.buscar(1L, "tren", 0, 10)));
+        assertEquals(List.of(1L), ids(buscador.buscar(1L, "avion", 0, 10)));
+        verify(notaRepository, times(1)).streamTextosByUsuarioId(1L);
+    }
+
+    @Test
+    @DisplayName("buscar - Tras una escritura masiva el índice se reconstruye desde la base de datos")
+    void buscar_notasModificadas_reconstruye() {
+        // Arrange
+        when(notaRepository.streamTextosByUsuarioId(1L))
+                .thenReturn(Stream.of(texto(1L, "Antigua", "texto")))
+                .thenReturn(Stream.of(texto(1L, "Antigua", "texto"), texto(2L, "Importada", "texto")));
+        buscador.buscar(1L, "texto", 0, 10);
+
+        // Act
+        buscador.notasModificadas(1L);
+        List<NotaBusquedaDTO> resultado = buscador.buscar(1L, "importada", 0, 10);
+
+        // Assert
+        assertEquals(List.of(2L), ids(resultado));
+        verify(notaRepository, times(2)).streamTextosByUsuarioId(1L);
+    }
+
+    @Test
+    @DisplayName("notaGuardada - Un aviso ya incluido se ignora y uno con hueco descarta el índice")
+    void notaGuardada_fueraDeOrden_descartaIndice() {
+        // Arrange - el índice se construye con el contador en 5
+        when(usuarioRepository.findVersionNotasById(1L)).thenReturn(Optional.of(5L));
+        when(notaRepository.streamTextosByUsuarioId(1L))
+                .thenReturn(Stream.of(texto(1L, "Viaje", "tren")))
+                .thenReturn(Stream.of(texto(1L, "Viaje", "tren"), texto(3L, "Ruta", "tren"), texto(4L, "Mapa", "tren")));
+        buscador.buscar(1L, "tren", 0, 10);
+
+        // Act - el cambio 4 ya estaba en la carga; llega el 7 antes que el 6
+        buscador.notaEliminada(1L, 4L, 1L);
+        buscador.notaGuardada(1L, 7L, 4L, "Mapa", "tren");
+        when(usuarioRepository.findVersionNotasById(1L)).thenReturn(Optional.of(7L));
+        List<NotaBusquedaDTO> resultado = buscador.buscar(1L, "tren", 0, 10);
+
+        // Assert - el índice se reconstruyó e incluye también la nota del cambio 6
+        assertEquals(List.of(1L, 3L, 4L), ids(resultado).stream().sorted().toList());
+        verify(notaRepository, times(2)).streamTextosByUsuarioId(1L);
+    }
+
+    @Test
+    @DisplayName("buscar - Si el contador de cambios va por delante del índice (otro nodo) lo reconstruye")
+    void buscar_indiceAtrasado_reconstruye() {
+        // Arrange
+        when(notaRepository.streamTextosByUsuarioId(1L))
+                .thenReturn(Stream.of(texto(1L, "Viaje", "tren")))
+                .thenReturn(Stream.of(texto(1L, "Viaje", "tren"), texto(2L, "Otro nodo", "tren")));
+        buscador.buscar(1L, "tren", 0, 10);
+        buscador.buscar(1L, "tren", 0, 10);
+
+        // Act
+        when(usuarioRepository.findVersionNotasById(1L)).thenReturn(Optional.of(1L));
+        List<NotaBusquedaDTO> resultado = buscador.buscar(1L, "tren", 0, 10);
+
+        // Assert
+        assertEquals(2, resultado.size());
+        verify(notaRepository, times(2)).streamTextosByUsuarioId(1L);
+    }
+
+    @Test
+    @DisplayName("IndiceInvertido - Tras compactar se conservan las notas vivas")
+    void indice_compactacion_conservaNotasVivas() {
+        // Arrange
+        IndiceInvertido indice = new IndiceInvertido();
+        for (long id = 1; id <= 200; id++) {
+            indice.agregar(id, "nota " + id, id % 2 == 0 ? "par" : "impar");
+        }
+
+        // Act - eliminar 150 notas provoca la compactación
+        for (long id = 1; id <= 150; id++) {
+            indice.eliminar(id);
+        }
+
+        // Assert
+        assertEquals(50, indice.tamanio());
+        assertEquals(25, indice.buscar(List.of("par"), 100).size());
+        assertEquals(List.of(151L), List.copyOf(indice.buscar(List.of("151"), 10).keySet()));
+    }
+
+    @Test
+    @DisplayName("buscar - Consulta formada solo por palabras vacías no consulta la base de datos")
+    void buscar_soloPalabrasVacias_retornaVacio() {
+        // Act
+        List<NotaBusquedaDTO> resultado = buscador.buscar(1L, "de la y", 0, 10);
+
+        // Assert
+        assertTrue(resultado.isEmpty());
+        verifyNoInteractions(notaRepository);
+    }
+
+    private static List<Long> ids(List<NotaBusquedaDTO> resultado) {
+        return resultado.stream().map(NotaBusquedaDTO::getId).toList();
+    }
+
+    private static NotaRepository.NotaTexto texto(Long id, String titulo, String contenido) {
+        return new NotaRepository.NotaTexto() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitulo() {
+                return titulo;
+            }
+
+            @Override
+            public String getContenido() {
+                return contenido;
+            }
+        };
+    }
+
+    private static NotaSummary resumen(Long id) {
+        return new NotaSummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitulo() {
+                return "Nota " + id;
+            }
+
+            @Override
+            public String getPreview() {
+                return "";
+            }
+        };
+    }
+}
@@ -0,0 +1,497 @@
+package com.sanez.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sanez.dto.nota.NotaBatchRequestDTO;
+import com.sanez.dto.nota.NotaCambiosDTO;
+import com.sanez.dto.nota.NotaImportResultadoDTO;
+import com.sanez.dto.nota.NotaOperacionDTO;
+import com.sanez.dto.nota.NotaOperacionResultadoDTO;
+import com.sanez.dto.nota.NotaRequestDTO;
+import com.sanez.dto.nota.NotaResponseDTO;
+import com.sanez.dto.nota.NotaUpdateDTO;
+import com.sanez.exception.OperacionNoPermitidaException;
+import com.sanez.exception.PrecondicionFallidaException;
+import com.sanez.exception.RecursoNoEncontradoException;
+import com.sanez.model.Nota;
+import com.sanez.model.NotaEliminada;
+import com.sanez.model.Usuario;
+import com.sanez.repository.NotaEliminadaRepository;
+import com.sanez.repository.NotaJdbcRepository;
+import com.sanez.repository.NotaRepository;
+import com.sanez.repository.UsuarioRepository;
+import com.sanez.security.service.CustomUserDetails;
+import com.sanez.service.BuscadorNotas;
+import com.sanez.service.SugeridorTitulos;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotaService - Tests Unitarios")
+class NotaServiceTest {
+
+    @Mock
+    private NotaRepository notaRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private NotaJdbcRepository notaJdbcRepository;
+
+    @Mock
+    private NotaEliminadaRepository notaEliminadaRepository;
+
+    @Mock
+    private BuscadorNotas buscadorNotas;
+
+    @Mock
+    private SugeridorTitulos sugeridorTitulos;
+
+    @Mock
+    private NotaSummaryCache notaSummaryCache;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ValidatorFactory validatorFactory;
+    private NotaServiceImpl notaService;
+    private List<List<String>> lotesInsertados;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        // Lotes de 2 notas para comprobar el envío por batches
+        notaService = new NotaServiceImpl(notaRepository, usuarioRepository, notaJdbcRepository,
+                notaEliminadaRepository, buscadorNotas, sugeridorTitulos, notaSummaryCache, new SingleFlight(),
+                entityManager,
+                new ObjectMapper(), validatorFactory.getValidator(), 2);
+
+        CustomUserDetails userDetails = new CustomUserDetails(1L, "test@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+
+        // El servicio reutiliza la lista del lote, así que se copia en cada llamada
+        lotesInsertados = new ArrayList<>();
+        lenient().when(usuarioRepository.findVersionNotasById(1L)).thenReturn(Optional.of(7L));
+        lenient().when(usuarioRepository.findEstadoCambiosById(1L)).thenReturn(Optional.of(estadoCambios(7L, 0L)));
+        lenient().doAnswer(invocation -> {
+            List<Nota> lote = invocation.getArgument(2);
+            if (!lote.isEmpty()) {
+                lotesInsertados.add(lote.stream().map(Nota::getTitulo).toList());
+            }
+            return null;
+        }).when(notaJdbcRepository).insertarLote(eq(1L), eq(7L), anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        validatorFactory.close();
+    }
+
+    // ==================== TESTS DE IMPORTACIÓN ====================
+
+    @Test
+    @DisplayName("Importar notas - NDJSON válido se inserta en lotes del tamaño configurado")
+    void importarNotas_ndjsonValido_insertaEnLotes() throws Exception {
+        // Arrange
+        String cuerpo = """
+                {"titulo":"Nota 1","contenido":"Contenido 1"}
+                {"titulo":"Nota 2","contenido":"Contenido 2"}
+                {"titulo":"Nota 3","contenido":"Contenido 3"}
+                """;
+
+        // Act
+        NotaImportResultadoDTO resultado = notaService.importarNotas(entrada(cuerpo));
+
+        // Assert
+        assertEquals(3, resultado.getAceptadas());
+        assertEquals(0, resultado.getRechazadas());
+        assertEquals(List.of(List.of("Nota 1", "Nota 2"), List.of("Nota 3")), lotesInsertados);
+    }
+
+    @Test
+    @DisplayName("Importar notas - Array JSON con registros inválidos los rechaza indicando la línea")
+    void importarNotas_arrayConInvalidos_rechazaPorLinea() throws Exception {
+        // Arrange
+        String cuerpo = """
+                [
+                  {"titulo":"Nota 1","contenido":"Contenido 1"},
+                  {"titulo":"","contenido":"Sin título"},
+                  "no es una nota",
+                  {"titulo":"Nota 4","contenido":"Contenido 4"}
+                ]
+                """;
+
+        // Act
+        NotaImportResultadoDTO resultado = notaService.importarNotas(entrada(cuerpo));
+
+        // Assert
+        assertEquals(2, resultado.getAceptadas());
+        assertEquals(2, resultado.getRechazadas());
+        assertEquals(3, resultado.getErrores().get(0).getLinea());
+        assertEquals("El título no puede estar vacío", resultado.getErrores().get(0).getMensaje());
+        assertEquals(4, resultado.getErrores().get(1).getLinea());
+        assertEquals(List.of(List.of("Nota 1", "Nota 4")), lotesInsertados);
+    }
+
+    @Test
+    @DisplayName("Importar notas - JSON mal formado detiene la lectura y conserva lo aceptado")
+    void importarNotas_jsonMalFormado_conservaAceptadas() throws Exception {
+        // Arrange
+        String cuerpo = """
+                {"titulo":"Nota 1","contenido":"Contenido 1"}
+                {"titulo":"Nota 2","contenido":
+                """;
+
+        // Act
+        NotaImportResultadoDTO resultado = notaService.importarNotas(entrada(cuerpo));
+
+        // Assert
+        assertEquals(1, resultado.getAceptadas());
+        assertEquals(1, resultado.getRechazadas());
+        assertTrue(resultado.getErrores().get(0).getMensaje().startsWith("JSON mal formado"));
+        assertEquals(List.of(List.of("Nota 1")), lotesInsertados);
+    }
+
+    // ==================== TESTS DE OPERACIONES POR LOTES ====================
+
+    @Test
+    @DisplayName("Procesar lote - Comprueba la propiedad con una sola consulta y devuelve un resultado por operación")
+    void procesarLote_operacionesMixtas_resultadoPorOperacion() {
+        // Arrange
+        NotaRepository.NotaPropietario propia = propietario(10L, 1L);
+        NotaRepository.NotaPropietario ajena = propietario(20L, 2L);
+        when(notaRepository.findPropietarios(Set.of(10L, 20L, 99L))).thenReturn(List.of(propia, ajena));
+        when(notaJdbcRepository.insertarLote(eq(1L), eq(7L), anyList())).thenReturn(List.of(100L));
+        when(notaJdbcRepository.actualizarLote(eq(1L), eq(7L), anyList())).thenReturn(new int[]{1});
+        when(notaJdbcRepository.eliminarLote(eq(1L), eq(7L), anyList())).thenReturn(new int[]{1});
+
+        NotaBatchRequestDTO request = new NotaBatchRequestDTO(List.of(
+                new NotaOperacionDTO(NotaOperacionDTO.Tipo.CREAR, null, "Nueva", "Contenido", null),
+                new NotaOperacionDTO(NotaOperacionDTO.Tipo.EDITAR, 10L, "Editada", null, null),
+                new NotaOperacionDTO(NotaOperacionDTO.Tipo.EDITAR, 20L, "Intruso", null, null),
+                new NotaOperacionDTO(NotaOperacionDTO.Tipo.ELIMINAR, 99L, null, null, null),
+                new NotaOperacionDTO(NotaOperacionDTO.Tipo.ELIMINAR, 10L, null, null, null),
+                new NotaOperacionDTO(NotaOperacionDTO.Tipo.EDITAR, 10L, "Tarde", null, null),
+                new NotaOperacionDTO(NotaOperacionDTO.Tipo.CREAR, null, "", "Sin título", null)
+        ));
+
+        // Act
+        List<NotaOperacionResultadoDTO> resultados = notaService.procesarLote(request);
+
+        // Assert
+        assertEquals(List.of(201, 200, 403, 404, 204, 404, 400),
+                resultados.stream().map(NotaOperacionResultadoDTO::getStatus).toList());
+        assertEquals(100L, resultados.get(0).getId());
+        verify(notaRepository, times(1)).findPropietarios(anyCollection());
+        verify(notaRepository, never()).findById(any());
+        verify(notaJdbcRepository, times(1)).actualizarLote(eq(1L), eq(7L), argThat(notas -> notas.size() == 1));
+        verify(notaJdbcRepository, times(1)).eliminarLote(1L, 7L, List.of(10L));
+        verify(usuarioRepository, times(1)).incrementarVersionNotas(1L);
+        InOrder orden = inOrder(usuarioRepository, notaRepository);
+        orden.verify(usuarioRepository).incrementarVersionNotas(1L);
+        orden.verify(notaRepository).findPropietarios(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Procesar lote - Filas no afectadas retornan 404, o 412 si la edición traía versión")
+    void procesarLote_filasNoAfectadas_retornan404o412() {
+        // Arrange
+        when(notaRepository.findPropietarios(Set.of(10L, 11L, 12L)))
+                .thenReturn(List.of(propietario(10L, 1L), propietario(11L, 1L), propietario(12L, 1L)));
+        when(notaJdbcRepository.actualizarLote(eq(1L), eq(7L), anyList())).thenReturn(new int[]{0, 0});
+        when(notaJdbcRepository.eliminarLote(eq(1L), eq(7L), anyList())).thenReturn(new int[]{0});
+
+        NotaBatchRequestDTO request = new NotaBatchRequestDTO(List.of(
+                new NotaOperacionDTO(NotaOperacionDTO.Tipo.EDITAR, 10L, "Con versión", null, 3L),
+                new NotaOperacionDTO(NotaOperacionDTO.Tipo.EDITAR, 11L, "Sin versión", null, null),
+                new NotaOperacionDTO(NotaOperacionDTO.Tipo.ELIMINAR, 12L, null, null, null)
+        ));
+
+        // Act
+        List<NotaOperacionResultadoDTO> resultados = notaService.procesarLote(request);
+
+        // Assert
+        assertEquals(List.of(412, 404, 404), resultados.stream().map(NotaOperacionResultadoDTO::getStatus).toList());
+        verify(notaJdbcRepository).actualizarLote(eq(1L), eq(7L), argThat(ediciones ->
+                ediciones.get(0).versionEsperada() == 3L && ediciones.get(1).versionEsperada() < 0));
+    }
+
+    // ==================== TESTS DE CREACIÓN ====================
+
+    @Test
+    @DisplayName("Crear nota - Usa una referencia al usuario sin consultarlo")
+    void crearNota_usaReferenciaSinCargarUsuario() {
+        // Arrange
+        Usuario referencia = new Usuario();
+        referencia.setId(1L);
+        when(usuarioRepository.getReferenceById(1L)).thenReturn(referencia);
+        when(notaRepository.save(any(Nota.class))).thenAnswer(invocation -> {
+            Nota nota = invocation.getArgument(0);
+            nota.setId(50L);
+            return nota;
+        });
+
+        // Act
+        NotaResponseDTO resultado = notaService.crearNota(new NotaRequestDTO("Nueva", "Contenido"));
+
+        // Assert
+        assertEquals(50L, resultado.getId());
+        assertEquals(1L, resultado.getUsuarioId());
+        assertEquals(7L, resultado.getCambio());
+        verify(usuarioRepository, never()).findById(any());
+    }
+
+    // ==================== TESTS DE EDICIÓN CONDICIONAL ====================
+
+    @Test
+    @DisplayName("Editar nota - If-Match vigente aplica un UPDATE condicional sin lectura previa ni posterior")
+    void editarNota_versionVigente_actualiza() {
+        // Arrange
+        NotaResponseDTO editada = new NotaResponseDTO(10L, "Editada", "Contenido", 1L, 7L, Instant.now(), 4L);
+        when(notaJdbcRepository.actualizarSiVersion(eq(10L), eq(1L), eq(3L), eq("Editada"), isNull(), eq(7L), any()))
+                .thenReturn(Optional.of(editada));
+
+        // Act
+        NotaResponseDTO resultado = notaService.editarNota(10L, new NotaUpdateDTO("Editada", null), 3L);
+
+        // Assert
+        assertSame(editada, resultado);
+        verify(buscadorNotas).notaGuardada(1L, 7L, 10L, "Editada", "Contenido");
+        verify(notaSummaryCache).notaGuardada(1L, 7L, 10L, "Editada", "Contenido");
+        verify(notaRepository, never()).findById(anyLong());
+        verify(notaRepository, never()).findPropietarios(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Editar nota - If-Match obsoleto lanza PrecondicionFallidaException (412)")
+    void editarNota_versionObsoleta_lanza412() {
+        // Arrange
+        when(notaJdbcRepository.actualizarSiVersion(eq(10L), eq(1L), eq(2L), any(), any(), anyLong(), any()))
+                .thenReturn(Optional.empty());
+        when(notaRepository.findPropietarios(List.of(10L))).thenReturn(List.of(propietario(10L, 1L)));
+
+        // Act & Assert
+        assertThrows(PrecondicionFallidaException.class,
+                () -> notaService.editarNota(10L, new NotaUpdateDTO("Editada", null), 2L));
+    }
+
+    @Test
+    @DisplayName("Editar nota - Nota de otro usuario lanza OperacionNoPermitidaException")
+    void editarNota_notaAjena_lanza403() {
+        // Arrange
+        when(notaJdbcRepository.actualizarSiVersion(eq(20L), eq(1L), eq(-1L), any(), any(), anyLong(), any()))
+                .thenReturn(Optional.empty());
+        when(notaRepository.findPropietarios(List.of(20L))).thenReturn(List.of(propietario(20L, 2L)));
+
+        // Act & Assert
+        assertThrows(OperacionNoPermitidaException.class,
+                () -> notaService.editarNota(20L, new NotaUpdateDTO("Intruso", null), null));
+    }
+
+    // ==================== TESTS DE ELIMINACIÓN ====================
+
+    @Test
+    @DisplayName("Eliminar nota - Un DELETE con el propietario en el WHERE y una lápida, sin cargar la nota")
+    void eliminarNota_propia_unaSentencia() {
+        // Arrange
+        when(notaRepository.eliminarDeUsuario(10L, 1L)).thenReturn(1);
+
+        // Act
+        notaService.eliminarNota(10L);
+
+        // Assert
+        verify(notaRepository, never()).findById(any());
+        verify(notaRepository, never()).findPropietarios(anyCollection());
+        verify(entityManager, times(1)).persist(any(NotaEliminada.class));
+    }
+
+    @Test
+    @DisplayName("Eliminar nota - Nota inexistente lanza RecursoNoEncontradoException")
+    void eliminarNota_inexistente_lanza404() {
+        // Arrange
+        when(notaRepository.eliminarDeUsuario(99L, 1L)).thenReturn(0);
+        when(notaRepository.findPropietarios(List.of(99L))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(RecursoNoEncontradoException.class, () -> notaService.eliminarNota(99L));
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    @DisplayName("Eliminar nota - Nota de otro usuario lanza OperacionNoPermitidaException")
+    void eliminarNota_ajena_lanza403() {
+        // Arrange
+        when(notaRepository.eliminarDeUsuario(20L, 1L)).thenReturn(0);
+        when(notaRepository.findPropietarios(List.of(20L))).thenReturn(List.of(propietario(20L, 2L)));
+
+        // Act & Assert
+        assertThrows(OperacionNoPermitidaException.class, () -> notaService.eliminarNota(20L));
+        verify(entityManager, never()).persist(any());
+    }
+
+    // ==================== TESTS DE SINCRONIZACIÓN ====================
+
+    @Test
+    @DisplayName("Obtener cambios - Devuelve modificadas y eliminadas desde el token y el token actual")
+    void obtenerCambios_conSince_devuelveDelta() {
+        // Arrange
+        when(notaRepository.findCambios(eq(1L), eq(3L), eq(7L), any())).thenReturn(List.of(notaConCambio(5L, 6L)));
+        when(notaEliminadaRepository.findEliminadas(eq(1L), eq(3L), eq(7L), any()))
+                .thenReturn(List.of(lapida(4L, 5L)));
+
+        // Act
+        NotaCambiosDTO cambios = notaService.obtenerCambios(3L, 200);
+
+        // Assert
+        assertEquals(7L, cambios.getToken());
+        assertFalse(cambios.isHayMas());
+        assertFalse(cambios.isResincronizar());
+        assertEquals(List.of(5L), cambios.getActualizadas().stream().map(NotaResponseDTO::getId).toList());
+        assertEquals(List.of(4L), cambios.getEliminadas());
+    }
+
+    @Test
+    @DisplayName("Obtener cambios - Con más cambios que el límite corta la página antes del primer cambio que no cabe")
+    void obtenerCambios_superaLimite_paginaPorCambio() {
+        // Arrange - cambios 4 (nota), 5 (lápida) y 6 (dos notas del mismo lote); límite 3
+        when(notaRepository.findCambios(eq(1L), eq(3L), eq(7L), any())).thenReturn(List.of(
+                notaConCambio(10L, 4L), notaConCambio(11L, 6L), notaConCambio(12L, 6L)));
+        when(notaEliminadaRepository.findEliminadas(eq(1L), eq(3L), eq(7L), any()))
+                .thenReturn(List.of(lapida(20L, 5L)));
+
+        // Act
+        NotaCambiosDTO cambios = notaService.obtenerCambios(3L, 3);
+
+        // Assert - el lote 6 no se parte: pasa entero a la página siguiente
+        assertEquals(5L, cambios.getToken());
+        assertTrue(cambios.isHayMas());
+        assertEquals(List.of(10L), cambios.getActualizadas().stream().map(NotaResponseDTO::getId).toList());
+        assertEquals(List.of(20L), cambios.getEliminadas());
+    }
+
+    @Test
+    @DisplayName("Obtener cambios - Un único cambio mayor que el límite se entrega completo")
+    void obtenerCambios_cambioMayorQueLimite_seEntregaEntero() {
+        // Arrange
+        when(notaRepository.findCambios(eq(1L), eq(3L), eq(7L), any())).thenReturn(List.of(
+                notaConCambio(10L, 4L), notaConCambio(11L, 4L)));
+        when(notaEliminadaRepository.findEliminadas(eq(1L), eq(3L), eq(7L), any())).thenReturn(List.of());
+        when(notaRepository.findCambios(eq(1L), eq(3L), eq(4L), any())).thenReturn(List.of(
+                notaConCambio(10L, 4L), notaConCambio(11L, 4L), notaConCambio(12L, 4L)));
+        when(notaEliminadaRepository.findEliminadas(eq(1L), eq(3L), eq(4L), any())).thenReturn(List.of());
+
+        // Act
+        NotaCambiosDTO cambios = notaService.obtenerCambios(3L, 1);
+
+        // Assert
+        assertEquals(4L, cambios.getToken());
+        assertTrue(cambios.isHayMas());
+        assertEquals(List.of(10L, 11L, 12L), cambios.getActualizadas().stream().map(NotaResponseDTO::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Obtener cambios - Un token anterior a las lápidas purgadas pide resincronizar")
+    void obtenerCambios_sinceAnteriorAPurga_pideResincronizar() {
+        // Arrange
+        when(usuarioRepository.findEstadoCambiosById(1L)).thenReturn(Optional.of(estadoCambios(7L, 4L)));
+
+        // Act
+        NotaCambiosDTO cambios = notaService.obtenerCambios(3L, 200);
+
+        // Assert
+        assertTrue(cambios.isResincronizar());
+        assertTrue(cambios.getActualizadas().isEmpty());
+        assertTrue(cambios.getEliminadas().isEmpty());
+        verifyNoInteractions(notaRepository, notaEliminadaRepository);
+    }
+
+    @Test
+    @DisplayName("Obtener cambios - Sin token devuelve todas las notas y ninguna eliminada")
+    void obtenerCambios_sinSince_descargaCompleta() {
+        // Arrange
+        when(usuarioRepository.findEstadoCambiosById(1L)).thenReturn(Optional.of(estadoCambios(7L, 4L)));
+        when(notaRepository.findCambios(eq(1L), eq(-1L), eq(7L), any())).thenReturn(List.of());
+
+        // Act
+        NotaCambiosDTO cambios = notaService.obtenerCambios(null, 200);
+
+        // Assert
+        assertEquals(7L, cambios.getToken());
+        assertTrue(cambios.getEliminadas().isEmpty());
+        verifyNoInteractions(notaEliminadaRepository);
+    }
+
+    private static Nota notaConCambio(Long id, long cambio) {
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        Nota nota = new Nota();
+        nota.setId(id);
+        nota.setTitulo("Nota " + id);
+        nota.setUsuario(usuario);
+        nota.setCambio(cambio);
+        return nota;
+    }
+
+    private static NotaEliminada lapida(Long notaId, long cambio) {
+        return new NotaEliminada(notaId, null, cambio, Instant.now());
+    }
+
+    private static UsuarioRepository.EstadoCambios estadoCambios(long versionNotas, long cambioPurgado) {
+        return new UsuarioRepository.EstadoCambios() {
+            @Override
+            public long getVersionNotas() {
+                return versionNotas;
+            }
+
+            @Override
+            public long getCambioPurgado() {
+                return cambioPurgado;
+            }
+        };
+    }
+
+    private static NotaRepository.NotaPropietario propietario(Long id, Long usuarioId) {
+        return new NotaRepository.NotaPropietario() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUsuarioId() {
+                return usuarioId;
+            }
+        };
+    }
+
+    private static ByteArrayInputStream entrada(String cuerpo) {
+        return new ByteArrayInputStream(cuerpo.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,243 @@
+package com.sanez.service.impl;
+
+import com.sanez.dto.nota.NotaSummary;
+import com.sanez.repository.NotaRepository;
+import com.sanez.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotaSummaryCache - Tests Unitarios")
+class NotaSummaryCacheTest {
+
+    @Mock
+    private NotaRepository notaRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private NotaSummaryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new NotaSummaryCache(notaRepository, usuarioRepository, new SingleFlight(), 1_000_000, 5, 30, 60);
+        lenient().when(usuarioRepository.findVersionNotasById(1L)).thenReturn(Optional.of(0L));
+    }
+
+    @Test
+    @DisplayName("pagina - Pagina por cursor sobre la caché con una sola consulta")
+    void pagina_cursor_unaSolaConsulta() {
+        // Arrange
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(0L), any())).thenReturn(List.of(
+                resumen(2L, "Dos", "b"), resumen(5L, "Cinco", "e"), resumen(9L, "Nueve", "i")));
+
+        // Act
+        List<NotaSummary> primera = cache.pagina(1L, 0L, 2, 0L);
+        List<NotaSummary> segunda = cache.pagina(1L, 5L, 2, 0L);
+        List<NotaSummary> cursorInexistente = cache.pagina(1L, 3L, 10, 0L);
+
+        // Assert
+        assertEquals(List.of(2L, 5L), ids(primera));
+        assertEquals(List.of(9L), ids(segunda));
+        assertEquals(List.of(5L, 9L), ids(cursorInexistente));
+        verify(notaRepository, times(1)).findPaginaPorUsuario(eq(1L), eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("pagina - Alta, edición y borrado actualizan la entrada sin volver a consultar")
+    void pagina_escrituras_actualizanSinConsultar() {
+        // Arrange
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(0L), any())).thenReturn(List.of(
+                resumen(2L, "Dos", "b"), resumen(5L, "Cinco", "e")));
+        cache.pagina(1L, 0L, 10, 0L);
+
+        // Act
+        cache.notaGuardada(1L, 1L, 7L, "Siete", "g");
+        cache.notaGuardada(1L, 2L, 2L, "Dos editada", "x".repeat(300));
+        cache.notaEliminada(1L, 3L, 5L);
+        List<NotaSummary> resultado = cache.pagina(1L, 0L, 10, 0L);
+
+        // Assert
+        assertEquals(List.of(2L, 7L), ids(resultado));
+        assertEquals("Dos editada", resultado.get(0).getTitulo());
+        assertEquals(NotaSummary.PREVIEW_LENGTH, resultado.get(0).getPreview().length());
+        verify(notaRepository, times(1)).findPaginaPorUsuario(eq(1L), eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("pagina - Tras una escritura masiva se recarga desde la base de datos")
+    void pagina_notasModificadas_recarga() {
+        // Arrange
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(0L), any()))
+                .thenReturn(List.of(resumen(1L, "Antigua", "a")))
+                .thenReturn(List.of(resumen(1L, "Antigua", "a"), resumen(2L, "Importada", "b")));
+        cache.pagina(1L, 0L, 10, 0L);
+
+        // Act
+        cache.notasModificadas(1L);
+        List<NotaSummary> resultado = cache.pagina(1L, 0L, 10, 0L);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), ids(resultado));
+        verify(notaRepository, times(2)).findPaginaPorUsuario(eq(1L), eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("pagina - Un aviso repetido se ignora y uno con hueco descarta la entrada")
+    void notaGuardada_fueraDeOrden_recarga() {
+        // Arrange
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(0L), any()))
+                .thenReturn(List.of(resumen(2L, "Dos", "b")))
+                .thenReturn(List.of(resumen(2L, "Dos", "b"), resumen(7L, "Siete", "g"), resumen(8L, "Ocho", "h")));
+        cache.pagina(1L, 0L, 10, 0L);
+        cache.notaGuardada(1L, 1L, 7L, "Siete", "g");
+
+        // Act - el cambio 1 llega dos veces y el 3 adelanta al 2
+        cache.notaGuardada(1L, 1L, 7L, "Siete repetida", "g");
+        List<NotaSummary> trasRepetido = cache.pagina(1L, 0L, 10, 0L);
+        cache.notaGuardada(1L, 3L, 8L, "Ocho", "h");
+        List<NotaSummary> trasHueco = cache.pagina(1L, 0L, 10, 0L);
+
+        // Assert
+        assertEquals("Siete", trasRepetido.get(1).getTitulo());
+        assertEquals(List.of(2L, 7L, 8L), ids(trasHueco));
+        verify(notaRepository, times(2)).findPaginaPorUsuario(eq(1L), eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("pagina - Una entrada más antigua que la versión del ETag se recarga una sola vez")
+    void pagina_entradaAnteriorAlEtag_recarga() {
+        // Arrange - otro nodo confirma el cambio 1 después de cachear la entrada con el cambio 0
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(0L), any()))
+                .thenReturn(List.of(resumen(2L, "Dos", "b")))
+                .thenReturn(List.of(resumen(2L, "Dos", "b"), resumen(4L, "Cuatro", "d")));
+        cache.pagina(1L, 0L, 10, 0L);
+        when(usuarioRepository.findVersionNotasById(1L)).thenReturn(Optional.of(1L));
+
+        // Act
+        List<NotaSummary> resultado = cache.pagina(1L, 0L, 10, 1L);
+        cache.pagina(1L, 0L, 10, 1L);
+
+        // Assert
+        assertEquals(List.of(2L, 4L), ids(resultado));
+        verify(notaRepository, times(2)).findPaginaPorUsuario(eq(1L), eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("pagina - Un usuario con demasiadas notas no se cachea y consulta la base de datos")
+    void pagina_demasiadasNotas_consultaBaseDeDatos() {
+        // Arrange
+        List<NotaSummary> seis = List.of(resumen(1L, "a", ""), resumen(2L, "b", ""), resumen(3L, "c", ""),
+                resumen(4L, "d", ""), resumen(5L, "e", ""), resumen(6L, "f", ""));
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(0L), any())).thenReturn(seis);
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(3L), any())).thenReturn(seis.subList(3, 5));
+
+        // Act
+        List<NotaSummary> resultado = cache.pagina(1L, 3L, 2, 0L);
+
+        // Assert
+        assertEquals(List.of(4L, 5L), ids(resultado));
+        verify(notaRepository).findPaginaPorUsuario(eq(1L), eq(3L), any());
+    }
+
+    @Test
+    @DisplayName("pagina - La marca de demasiadas notas caduca tras escribirse aunque se siga leyendo")
+    void pagina_marcaDemasiadas_caducaAunqueSeLea() {
+        // Arrange - la marca caduca en cuanto se escribe; una entrada normal sobreviviría a la lectura
+        NotaSummaryCache marcaEfimera = new NotaSummaryCache(notaRepository, usuarioRepository, new SingleFlight(),
+                1_000_000, 1, 30, 0);
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(0L), any()))
+                .thenReturn(List.of(resumen(1L, "a", ""), resumen(2L, "b", "")));
+
+        // Act
+        marcaEfimera.pagina(1L, 5L, 10, 0L);
+        marcaEfimera.pagina(1L, 5L, 10, 0L);
+
+        // Assert
+        verify(notaRepository, times(2)).findPaginaPorUsuario(eq(1L), eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("pagina - Un alta que supera el máximo de notas convierte la entrada en la marca")
+    void notaGuardada_superaMaximo_pasaAMarca() {
+        // Arrange
+        List<NotaSummary> cinco = List.of(resumen(1L, "a", ""), resumen(2L, "b", ""), resumen(3L, "c", ""),
+                resumen(4L, "d", ""), resumen(5L, "e", ""));
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(0L), any())).thenReturn(cinco);
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(4L), any())).thenReturn(List.of(cinco.get(4)));
+        cache.pagina(1L, 0L, 10, 0L);
+
+        // Act
+        cache.notaGuardada(1L, 1L, 6L, "f", "");
+        List<NotaSummary> resultado = cache.pagina(1L, 4L, 10, 0L);
+
+        // Assert - se consulta la base de datos en lugar de servir seis resúmenes desde la caché
+        assertEquals(List.of(5L), ids(resultado));
+        verify(notaRepository).findPaginaPorUsuario(eq(1L), eq(4L), any());
+        verify(notaRepository, times(1)).findPaginaPorUsuario(eq(1L), eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("bindTo - Publica la tasa de aciertos y el peso en bytes")
+    void bindTo_publicaMetricas() throws InterruptedException {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        when(notaRepository.findPaginaPorUsuario(eq(1L), eq(0L), any()))
+                .thenReturn(List.of(resumen(1L, "Nota", "texto")));
+
+        // Act
+        cache.pagina(1L, 0L, 10, 0L);
+        cache.pagina(1L, 0L, 10, 0L);
+
+        // Assert
+        assertEquals(0.5, registry.get("notas.summary.cache.hit.ratio").gauge().value());
+        assertTrue(esperarPeso(registry) > 0);
+    }
+
+    // Caffeine actualiza el peso en su mantenimiento asíncrono, así que se espera a que se refleje.
+    private static double esperarPeso(SimpleMeterRegistry registry) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        double peso = registry.get("notas.summary.cache.weight").gauge().value();
+        while (peso == 0 && System.nanoTime() < limite) {
+            Thread.sleep(5);
+            peso = registry.get("notas.summary.cache.weight").gauge().value();
+        }
+        return peso;
+    }
+
+    private static List<Long> ids(List<NotaSummary> resumenes) {
+        return resumenes.stream().map(NotaSummary::getId).toList();
+    }
+
+    private static NotaSummary resumen(Long id, String titulo, String preview) {
+        return new NotaSummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitulo() {
+                return titulo;
+            }
+
+            @Override
+            public String getPreview() {
+                return preview;
+            }
+        };
+    }
+}
@@ -0,0 +1,199 @@
+package com.sanez.service.impl;
+
+import com.sanez.dto.perfil.PerfilResponseDTO;
+import com.sanez.exception.RecursoNoEncontradoException;
+import com.sanez.model.Nota;
+import com.sanez.model.Perfil;
+import com.sanez.model.Usuario;
+import com.sanez.repository.NotaRepository;
+import com.sanez.repository.UsuarioRepository;
+import com.sanez.security.service.CustomUserDetails;
+import com.sanez.service.PerfilService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin @Transactional: cada llamada confirma o revierte su propia transacción, como en una petición real.
+@SpringBootTest
+@DisplayName("PerfilService - Tests de Integración")
+class PerfilServiceTest {
+
+    @Autowired
+    private PerfilService perfilService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    private Usuario usuario;
+    private Usuario otroUsuario;
+    private Nota nota1;
+    private Nota nota2;
+    private Nota ajena;
+
+    @BeforeEach
+    void setUp() {
+        usuario = usuarioRepository.save(crearUsuario());
+        otroUsuario = usuarioRepository.save(crearUsuario());
+        nota1 = notaRepository.save(crearNota("Nota 1", usuario));
+        nota2 = notaRepository.save(crearNota("Nota 2", usuario));
+        ajena = notaRepository.save(crearNota("Ajena", otroUsuario));
+
+        CustomUserDetails principal = new CustomUserDetails(usuario.getId(), usuario.getEmail(),
+                usuario.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        usuarioRepository.deleteById(usuario.getId());
+        usuarioRepository.deleteById(otroUsuario.getId());
+    }
+
+    @Test
+    @DisplayName("agregarNotasFavoritas - Una nota ajena retorna 404 y no se añade ninguna")
+    void agregarNotasFavoritas_notaAjena_retorna404YNoInserta() {
+        // Arrange
+        String etagAntes = perfilService.obtenerEtagPerfil();
+
+        // Act & Assert
+        assertThrows(RecursoNoEncontradoException.class,
+                () -> perfilService.agregarNotasFavoritas(List.of(nota1.getId(), ajena.getId())));
+
+        assertTrue(perfilService.obtenerMiPerfil().getNotasFavoritas().isEmpty());
+        assertEquals(etagAntes, perfilService.obtenerEtagPerfil());
+    }
+
+    @Test
+    @DisplayName("agregarNotasFavoritas - Añadir en lote cambia el ETag del perfil")
+    void agregarNotasFavoritas_lote_cambiaEtag() {
+        // Arrange
+        String etagAntes = perfilService.obtenerEtagPerfil();
+
+        // Act
+        perfilService.agregarNotasFavoritas(List.of(nota2.getId(), nota1.getId()));
+
+        // Assert
+        PerfilResponseDTO perfil = perfilService.obtenerMiPerfil();
+        assertNotEquals(etagAntes, perfilService.obtenerEtagPerfil());
+        assertEquals("\"perfil-" + perfil.getId() + "-" + perfil.getVersion() + "\"", perfilService.obtenerEtagPerfil());
+        assertEquals(List.of(nota1.getId(), nota2.getId()), perfil.getNotasFavoritas());
+    }
+
+    @Test
+    @DisplayName("agregarNotasFavoritas - Repetir notas que ya eran favoritas no cambia el ETag")
+    void agregarNotasFavoritas_yaFavoritas_mantieneEtag() {
+        // Arrange
+        perfilService.agregarNotasFavoritas(List.of(nota1.getId()));
+        String etagAntes = perfilService.obtenerEtagPerfil();
+
+        // Act
+        perfilService.agregarNotasFavoritas(List.of(nota1.getId()));
+
+        // Assert
+        assertEquals(etagAntes, perfilService.obtenerEtagPerfil());
+    }
+
+    @Test
+    @DisplayName("agregarNotasFavoritas - Peticiones simultáneas con notas repetidas no chocan en la clave primaria")
+    void agregarNotasFavoritas_concurrentesSolapadas_sinErrores() throws Exception {
+        // Arrange
+        CustomUserDetails principal = (CustomUserDetails) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        int hilos = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            for (int ronda = 0; ronda < 20; ronda++) {
+                CyclicBarrier salida = new CyclicBarrier(hilos);
+                List<Future<?>> respuestas = new ArrayList<>();
+
+                // Act - todas las peticiones arrancan a la vez con las mismas notas
+                for (int i = 0; i < hilos; i++) {
+                    respuestas.add(executor.submit(() -> {
+                        SecurityContextHolder.getContext().setAuthentication(
+                                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+                        try {
+                            salida.await(10, TimeUnit.SECONDS);
+                            perfilService.agregarNotasFavoritas(List.of(nota1.getId(), nota2.getId()));
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                        }
+                        return null;
+                    }));
+                }
+
+                // Assert
+                for (Future<?> respuesta : respuestas) {
+                    respuesta.get(10, TimeUnit.SECONDS);
+                }
+                assertEquals(List.of(nota1.getId(), nota2.getId()), perfilService.obtenerMiPerfil().getNotasFavoritas());
+                perfilService.removerNotasFavoritas(List.of(nota1.getId(), nota2.getId()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("removerNotaFavorita - Nota ajena retorna 404")
+    void removerNotaFavorita_notaAjena_retorna404() {
+        // Act & Assert
+        assertThrows(RecursoNoEncontradoException.class, () -> perfilService.removerNotaFavorita(ajena.getId()));
+    }
+
+    @Test
+    @DisplayName("removerNotasFavoritas - Quitar en lote cambia el ETag e ignora las que no eran favoritas")
+    void removerNotasFavoritas_lote_cambiaEtag() {
+        // Arrange
+        perfilService.agregarNotasFavoritas(List.of(nota1.getId(), nota2.getId()));
+        String etagAntes = perfilService.obtenerEtagPerfil();
+
+        // Act
+        perfilService.removerNotasFavoritas(List.of(nota1.getId(), ajena.getId()));
+
+        // Assert
+        assertNotEquals(etagAntes, perfilService.obtenerEtagPerfil());
+        assertEquals(List.of(nota2.getId()), perfilService.obtenerMiPerfil().getNotasFavoritas());
+    }
+
+    private static Usuario crearUsuario() {
+        Usuario nuevo = new Usuario();
+        nuevo.setEmail("perfil-" + UUID.randomUUID() + "@example.com");
+        nuevo.setPassword("encodedPassword");
+        nuevo.setEnabled(true);
+        Perfil perfil = new Perfil();
+        perfil.setNombre("Test");
+        perfil.setUsuario(nuevo);
+        nuevo.setPerfil(perfil);
+        return nuevo;
+    }
+
+    private static Nota crearNota(String titulo, Usuario propietario) {
+        Nota nota = new Nota();
+        nota.setTitulo(titulo);
+        nota.setContenido("Contenido de " + titulo);
+        nota.setUsuario(propietario);
+        return nota;
+    }
+}
@@ -0,0 +1,219 @@
+package com.sanez.service.impl;
+
+import com.sanez.model.Perfil;
+import com.sanez.model.Usuario;
+import com.sanez.repository.UsuarioRepository;
+import com.sanez.security.service.CustomUserDetails;
+import com.sanez.service.NotaService;
+import com.sanez.service.PerfilService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Ráfagas de lecturas idénticas contra H2: cuenta las ejecuciones reales de cada consulta con las
+// estadísticas de Hibernate, no las llamadas al Supplier.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("SingleFlight - Test de carga con H2")
+class SingleFlightCargaTest {
+
+    private static final int PETICIONES = 16;
+
+    private static final String CONSULTA_VERSION_NOTAS = "select u.versionNotas from Usuario u where u.id = :id";
+    private static final String CONSULTA_PERFIL =
+            "select p from Perfil p left join fetch p.notasFavoritas where p.usuario.id = :usuarioId";
+
+    @Autowired
+    private NotaService notaService;
+
+    @Autowired
+    private PerfilService perfilService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RetenerConsulta retenerConsulta;
+
+    private Statistics estadisticas;
+    private ExecutorService executor;
+    private CustomUserDetails principal;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        executor = Executors.newFixedThreadPool(PETICIONES);
+
+        Usuario usuario = new Usuario();
+        usuario.setEmail("carga-" + UUID.randomUUID() + "@example.com");
+        usuario.setPassword("encodedPassword");
+        usuario.setEnabled(true);
+        Perfil perfil = new Perfil();
+        perfil.setNombre("Carga");
+        perfil.setUsuario(usuario);
+        usuario.setPerfil(perfil);
+        usuario = usuarioRepository.save(usuario);
+
+        principal = new CustomUserDetails(usuario.getId(), usuario.getEmail(), usuario.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        retenerConsulta.liberar();
+        executor.shutdownNow();
+        usuarioRepository.deleteById(principal.getId());
+    }
+
+    @Test
+    @DisplayName("obtenerVersionNotas - 16 lecturas simultáneas del ETag hacen una sola consulta")
+    void obtenerVersionNotas_rafaga_unaSolaConsulta() throws Exception {
+        // Act
+        long secuenciales = consultasSecuenciales(CONSULTA_VERSION_NOTAS, notaService::obtenerVersionNotas);
+        long concurrentes = consultasConcurrentes(CONSULTA_VERSION_NOTAS, "version_notas",
+                notaService::obtenerVersionNotas);
+
+        // Assert
+        assertEquals(PETICIONES, secuenciales);
+        assertEquals(1, concurrentes);
+    }
+
+    @Test
+    @DisplayName("obtenerMiPerfil - 16 lecturas simultáneas del perfil hacen una sola consulta")
+    void obtenerMiPerfil_rafaga_unaSolaConsulta() throws Exception {
+        // Act
+        long secuenciales = consultasSecuenciales(CONSULTA_PERFIL, perfilService::obtenerMiPerfil);
+        long concurrentes = consultasConcurrentes(CONSULTA_PERFIL, "perfil_notas_favoritas",
+                perfilService::obtenerMiPerfil);
+
+        // Assert
+        assertEquals(PETICIONES, secuenciales);
+        assertEquals(1, concurrentes);
+    }
+
+    // Referencia: las mismas lecturas una detrás de otra no se agrupan.
+    private long consultasSecuenciales(String consulta, Runnable lectura) {
+        long antes = ejecuciones(consulta);
+        for (int i = 0; i < PETICIONES; i++) {
+            comoUsuario(lectura).run();
+        }
+        return ejecuciones(consulta) - antes;
+    }
+
+    // La consulta de la primera petición se retiene en H2 hasta que las demás se han unido a ella.
+    private long consultasConcurrentes(String consulta, String fragmentoSql, Runnable lectura) throws Exception {
+        long antes = ejecuciones(consulta);
+        double agrupadasAntes = agrupadas();
+        retenerConsulta.retener(fragmentoSql);
+
+        List<Future<?>> respuestas = new ArrayList<>();
+        for (int i = 0; i < PETICIONES; i++) {
+            respuestas.add(executor.submit(comoUsuario(lectura)));
+        }
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (agrupadas() - agrupadasAntes < PETICIONES - 1 && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        retenerConsulta.liberar();
+        for (Future<?> respuesta : respuestas) {
+            respuesta.get(10, TimeUnit.SECONDS);
+        }
+        return ejecuciones(consulta) - antes;
+    }
+
+    private long ejecuciones(String consulta) {
+        return estadisticas.getQueryStatistics(consulta).getExecutionCount();
+    }
+
+    private double agrupadas() {
+        return meterRegistry.get("lecturas.singleflight").tag("resultado", "agrupada").functionCounter().count();
+    }
+
+    // Cada hilo de la ráfaga es una petición autenticada del mismo usuario.
+    private Runnable comoUsuario(Runnable lectura) {
+        return () -> {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+            try {
+                lectura.run();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+
+        @Bean
+        RetenerConsulta retenerConsulta() {
+            return new RetenerConsulta();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer retenerConsultaCustomizer(RetenerConsulta retenerConsulta) {
+            return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, retenerConsulta);
+        }
+    }
+
+    // Detiene en el driver las sentencias que contienen el fragmento indicado hasta que el test las libera.
+    static class RetenerConsulta implements StatementInspector {
+
+        private volatile String fragmento;
+        private volatile CountDownLatch liberada = new CountDownLatch(0);
+
+        void retener(String fragmento) {
+            liberada = new CountDownLatch(1);
+            this.fragmento = fragmento;
+        }
+
+        void liberar() {
+            fragmento = null;
+            liberada.countDown();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            String retenido = fragmento;
+            if (retenido != null && sql.contains(retenido)) {
+                try {
+                    liberada.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.sanez.service.impl;
+
+import com.sanez.exception.RecursoNoEncontradoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SingleFlight - Tests Unitarios")
+class SingleFlightTest {
+
+    private static final int PETICIONES = 16;
+
+    private SingleFlight singleFlight;
+    private SimpleMeterRegistry registry;
+    private ExecutorService executor;
+    private AtomicInteger consultas;
+    private CountDownLatch liberarConsulta;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight();
+        registry = new SimpleMeterRegistry();
+        singleFlight.bindTo(registry);
+        executor = Executors.newFixedThreadPool(PETICIONES);
+        consultas = new AtomicInteger();
+        liberarConsulta = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("ejecutar - Lecturas idénticas concurrentes hacen una sola consulta")
+    void ejecutar_lecturasConcurrentes_unaSolaConsulta() throws Exception {
+        // Arrange
+        Supplier<String> consultaLenta = () -> {
+            consultas.incrementAndGet();
+            esperar(liberarConsulta);
+            return "perfil";
+        };
+
+        // Act - la consulta no termina hasta que las demás peticiones se han unido a ella
+        List<Future<String>> respuestas = lanzar(PETICIONES,
+                () -> singleFlight.ejecutar(1L, "perfil", consultaLenta));
+        esperarAgrupadas(PETICIONES - 1);
+        liberarConsulta.countDown();
+
+        // Assert
+        for (Future<String> respuesta : respuestas) {
+            assertEquals("perfil", respuesta.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, consultas.get());
+        assertEquals(1.0, contador("ejecutada"));
+        assertEquals(PETICIONES - 1.0, contador("agrupada"));
+        assertEquals(0.0, registry.get("lecturas.singleflight.en.curso").gauge().value());
+    }
+
+    @Test
+    @DisplayName("ejecutar - Sin lecturas simultáneas cada petición consulta (no guarda resultados)")
+    void ejecutar_lecturasSecuenciales_consultanCadaVez() {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            singleFlight.ejecutar(1L, "perfil", consultas::incrementAndGet);
+        }
+        singleFlight.ejecutar(2L, "perfil", consultas::incrementAndGet);
+
+        // Assert
+        assertEquals(4, consultas.get());
+    }
+
+    @Test
+    @DisplayName("ejecutar - La excepción de la consulta llega a todas las peticiones agrupadas")
+    void ejecutar_excepcion_llegaATodas() throws Exception {
+        // Arrange
+        Supplier<String> consultaFallida = () -> {
+            consultas.incrementAndGet();
+            esperar(liberarConsulta);
+            throw new RecursoNoEncontradoException("Perfil no encontrado");
+        };
+
+        // Act
+        List<Future<String>> respuestas = lanzar(4, () -> singleFlight.ejecutar(1L, "perfil", consultaFallida));
+        esperarAgrupadas(3);
+        liberarConsulta.countDown();
+
+        // Assert
+        for (Future<String> respuesta : respuestas) {
+            Exception e = assertThrows(Exception.class, () -> respuesta.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RecursoNoEncontradoException.class, e.getCause());
+        }
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    @DisplayName("olvidar - Tras una escritura la siguiente lectura no se une a la que ya estaba en curso")
+    void olvidar_lecturaPosterior_consultaDeNuevo() throws Exception {
+        // Arrange
+        Future<Integer> anterior = executor.submit(() -> singleFlight.ejecutar(1L, "perfil", () -> {
+            esperar(liberarConsulta);
+            return consultas.incrementAndGet();
+        }));
+        while (registry.get("lecturas.singleflight.en.curso").gauge().value() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        singleFlight.olvidar(1L);
+        int posterior = singleFlight.ejecutar(1L, "perfil", consultas::incrementAndGet);
+        liberarConsulta.countDown();
+
+        // Assert
+        assertEquals(1, posterior);
+        assertEquals(2, anterior.get(5, TimeUnit.SECONDS));
+    }
+
+    private <T> List<Future<T>> lanzar(int peticiones, Callable<T> peticion) {
+        List<Future<T>> respuestas = new ArrayList<>();
+        for (int i = 0; i < peticiones; i++) {
+            respuestas.add(executor.submit(peticion));
+        }
+        return respuestas;
+    }
+
+    private void esperarAgrupadas(int esperadas) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (contador("agrupada") < esperadas) {
+            assertTrue(System.nanoTime() < limite, "Las peticiones no se agruparon a tiempo");
+            Thread.sleep(1);
+        }
+    }
+
+    private double contador(String resultado) {
+        return registry.get("lecturas.singleflight").tag("resultado", resultado).functionCounter().count();
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
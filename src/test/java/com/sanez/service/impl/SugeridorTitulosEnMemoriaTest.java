@@ -0,0 +1,114 @@
+package com.sanez.service.impl;
+
+import com.sanez.dto.nota.NotaSugerenciaDTO;
+import com.sanez.repository.NotaRepository;
+import com.sanez.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SugeridorTitulosEnMemoria - Tests Unitarios")
+class SugeridorTitulosEnMemoriaTest {
+
+    @Mock
+    private NotaRepository notaRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private SugeridorTitulosEnMemoria sugeridor;
+
+    @BeforeEach
+    void setUp() {
+        sugeridor = new SugeridorTitulosEnMemoria(notaRepository, usuarioRepository, 100, 30);
+        lenient().when(usuarioRepository.findVersionNotasById(1L)).thenReturn(Optional.of(0L));
+        when(notaRepository.findTitulosByUsuarioId(1L)).thenReturn(List.of(
+                titulo(1L, "Lista de compras"),
+                titulo(2L, "Reunión de equipo"),
+                titulo(3L, "Receta de paella"),
+                titulo(4L, "Comprar regalo")));
+    }
+
+    @Test
+    @DisplayName("sugerir - Prefijo de cualquier palabra, sin tildes ni mayúsculas, en orden alfabético")
+    void sugerir_prefijo_coincideInicioDePalabra() {
+        // Act
+        List<NotaSugerenciaDTO> compr = sugeridor.sugerir(1L, "COMPR", 10);
+        List<NotaSugerenciaDTO> reu = sugeridor.sugerir(1L, "reú", 10);
+
+        // Assert
+        assertEquals(List.of(4L, 1L), ids(compr));
+        assertEquals(List.of(2L), ids(reu));
+    }
+
+    @Test
+    @DisplayName("sugerir - Un título mal escrito se completa con similitud de trigramas")
+    void sugerir_tituloMalEscrito_usaTrigramas() {
+        // Act
+        List<NotaSugerenciaDTO> resultado = sugeridor.sugerir(1L, "reseta paeya", 5);
+
+        // Assert
+        assertEquals(3L, resultado.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("sugerir - Las escrituras se reflejan sin volver a consultar la base de datos")
+    void sugerir_escrituras_actualizanSinConsultar() {
+        // Arrange
+        sugeridor.sugerir(1L, "lis", 10);
+
+        // Act
+        sugeridor.notaGuardada(1L, 1L, 5L, "Listado de tareas");
+        sugeridor.notaEliminada(1L, 2L, 1L);
+        List<NotaSugerenciaDTO> resultado = sugeridor.sugerir(1L, "list", 10);
+
+        // Assert
+        assertEquals(List.of(5L), ids(resultado));
+        verify(notaRepository, times(1)).findTitulosByUsuarioId(1L);
+    }
+
+    @Test
+    @DisplayName("notaGuardada - Un aviso fuera de orden descarta los títulos y se recargan de la base de datos")
+    void notaGuardada_fueraDeOrden_recarga() {
+        // Arrange - cargado con el contador en 3
+        when(usuarioRepository.findVersionNotasById(1L)).thenReturn(Optional.of(3L));
+        sugeridor.sugerir(1L, "lis", 10);
+
+        // Act - el cambio 3 ya estaba incluido; el 5 llega antes que el 4
+        sugeridor.notaEliminada(1L, 3L, 1L);
+        sugeridor.notaGuardada(1L, 5L, 6L, "Listín");
+        List<NotaSugerenciaDTO> resultado = sugeridor.sugerir(1L, "lis", 10);
+
+        // Assert - la nota 1 sigue (aviso ignorado) y los títulos se recargaron
+        assertEquals(List.of(1L), ids(resultado));
+        verify(notaRepository, times(2)).findTitulosByUsuarioId(1L);
+    }
+
+    private static List<Long> ids(List<NotaSugerenciaDTO> sugerencias) {
+        return sugerencias.stream().map(NotaSugerenciaDTO::getId).toList();
+    }
+
+    private static NotaRepository.NotaTitulo titulo(Long id, String titulo) {
+        return new NotaRepository.NotaTitulo() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitulo() {
+                return titulo;
+            }
+        };
+    }
+}